@@ -0,0 +1,67 @@
+package com.example.resilient_api.benchmark;
+
+import com.example.resilient_api.benchmark.support.BenchmarkFixtures;
+import com.example.resilient_api.domain.model.Capacity;
+import com.example.resilient_api.domain.model.CapacityWithTechnologies;
+import com.example.resilient_api.infrastructure.adapters.persistenceadapter.entity.CapacityEntity;
+import com.example.resilient_api.infrastructure.adapters.persistenceadapter.mapper.CapacityEntityMapper;
+import com.example.resilient_api.infrastructure.entrypoints.dto.CapacityDTO;
+import com.example.resilient_api.infrastructure.entrypoints.dto.CapacityWithTechnologiesDTO;
+import com.example.resilient_api.infrastructure.entrypoints.mapper.CapacityMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * Conversiones de MapStruct usadas en la creación y en el listado (el mapeo de página del handler).
+ */
+@State(Scope.Benchmark)
+public class CapacityMappingBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private CapacityMapper capacityMapper;
+    private CapacityEntityMapper capacityEntityMapper;
+    private CapacityDTO capacityDTO;
+    private Capacity capacity;
+    private CapacityEntity capacityEntity;
+    private List<CapacityWithTechnologies> page;
+
+    @Setup
+    public void setUp() {
+        capacityMapper = Mappers.getMapper(CapacityMapper.class);
+        capacityEntityMapper = Mappers.getMapper(CapacityEntityMapper.class);
+        capacityDTO = BenchmarkFixtures.capacityDTO(1L, 5);
+        capacity = BenchmarkFixtures.capacity(1L, 5);
+        capacityEntity = BenchmarkFixtures.capacityEntity(1L);
+        page = BenchmarkFixtures.capacitiesWithTechnologies(pageSize, 5);
+    }
+
+    @Benchmark
+    public Capacity dtoToCapacity() {
+        return capacityMapper.capacityDTOToCapacity(capacityDTO);
+    }
+
+    @Benchmark
+    public CapacityEntity capacityToEntity() {
+        return capacityEntityMapper.toEntity(capacity);
+    }
+
+    @Benchmark
+    public Capacity entityToCapacity() {
+        return capacityEntityMapper.toModel(capacityEntity);
+    }
+
+    @Benchmark
+    public List<CapacityWithTechnologiesDTO> listingPageToDTOs() {
+        return page.stream()
+                .map(capacityMapper::toCapacityWithTechnologiesDTO)
+                .toList();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.resilient_api.benchmark;
+
+import com.example.resilient_api.benchmark.support.BenchmarkFixtures;
+import com.example.resilient_api.benchmark.support.StubCapacityPersistencePort;
+import com.example.resilient_api.benchmark.support.StubTechnologyExternalServicePort;
+import com.example.resilient_api.domain.model.Capacity;
+import com.example.resilient_api.domain.usecase.CapacityUseCase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * registerCapacity con puertos en memoria: validateCapacity y validateTechnologies más el armado del pipeline.
+ */
+@State(Scope.Benchmark)
+public class CapacityValidationBenchmark {
+
+    private static final String MESSAGE_ID = "benchmark";
+
+    @Param({"3", "20"})
+    private int technologies;
+
+    private CapacityUseCase capacityUseCase;
+    private Capacity validCapacity;
+    private Capacity duplicatedTechnologies;
+
+    @Setup
+    public void setUp() {
+        capacityUseCase = new CapacityUseCase(new StubCapacityPersistencePort(),
+                new StubTechnologyExternalServicePort());
+        validCapacity = BenchmarkFixtures.capacity(1L, technologies);
+        Capacity base = BenchmarkFixtures.capacity(2L, technologies);
+        List<Long> ids = new ArrayList<>(base.technologyIds());
+        ids.set(ids.size() - 1, ids.get(0));
+        duplicatedTechnologies = new Capacity(null, base.name(), base.description(), ids);
+    }
+
+    @Benchmark
+    public Capacity registerValidCapacity() {
+        return capacityUseCase.registerCapacity(validCapacity, MESSAGE_ID).block();
+    }
+
+    @Benchmark
+    public Throwable rejectDuplicatedTechnologies() {
+        return capacityUseCase.registerCapacity(duplicatedTechnologies, MESSAGE_ID)
+                .materialize()
+                .block()
+                .getThrowable();
+    }
+}
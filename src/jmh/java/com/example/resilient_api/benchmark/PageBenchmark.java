@@ -0,0 +1,37 @@
+package com.example.resilient_api.benchmark;
+
+import com.example.resilient_api.benchmark.support.BenchmarkFixtures;
+import com.example.resilient_api.domain.model.CapacityWithTechnologies;
+import com.example.resilient_api.domain.model.Page;
+import com.example.resilient_api.domain.model.TotalCount;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+@State(Scope.Benchmark)
+public class PageBenchmark {
+
+    @Param({"10", "100"})
+    private int size;
+
+    private List<CapacityWithTechnologies> content;
+
+    @Setup
+    public void setUp() {
+        content = BenchmarkFixtures.capacitiesWithTechnologies(size, 5);
+    }
+
+    @Benchmark
+    public Page<CapacityWithTechnologies> offsetPage() {
+        return Page.of(content, 3, size, 10_000L);
+    }
+
+    @Benchmark
+    public Page<CapacityWithTechnologies> keysetPage() {
+        return Page.ofKeyset(content, 0, size, TotalCount.estimated(10_000L), "cursor");
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.resilient_api.benchmark;
+
+import com.example.resilient_api.benchmark.support.BenchmarkFixtures;
+import com.example.resilient_api.infrastructure.entrypoints.dto.CapacityWithTechnologiesDTO;
+import com.example.resilient_api.infrastructure.entrypoints.dto.PageResponse;
+import com.example.resilient_api.infrastructure.entrypoints.mapper.CapacityMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Serialización JSON de la respuesta de GET /capacity, con el writer ya resuelto como lo usa el codec de WebFlux.
+ */
+@State(Scope.Benchmark)
+public class PageResponseSerializationBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private ObjectWriter writer;
+    private PageResponse<CapacityWithTechnologiesDTO> pageResponse;
+
+    @Setup
+    public void setUp() {
+        CapacityMapper capacityMapper = Mappers.getMapper(CapacityMapper.class);
+        writer = new ObjectMapper().writerFor(PageResponse.class);
+        pageResponse = PageResponse.<CapacityWithTechnologiesDTO>builder()
+                .content(BenchmarkFixtures.capacitiesWithTechnologies(pageSize, 5).stream()
+                        .map(capacityMapper::toCapacityWithTechnologiesDTO)
+                        .toList())
+                .page(0)
+                .size(pageSize)
+                .totalElements(10_000L)
+                .totalExact(true)
+                .totalPages(10_000 / pageSize)
+                .first(true)
+                .last(false)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return writer.writeValueAsBytes(pageResponse);
+    }
+}
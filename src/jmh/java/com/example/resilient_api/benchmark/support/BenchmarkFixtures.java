@@ -0,0 +1,53 @@
+package com.example.resilient_api.benchmark.support;
+
+import com.example.resilient_api.domain.model.Capacity;
+import com.example.resilient_api.domain.model.CapacityWithTechnologies;
+import com.example.resilient_api.domain.model.TechnologySummary;
+import com.example.resilient_api.infrastructure.adapters.persistenceadapter.entity.CapacityEntity;
+import com.example.resilient_api.infrastructure.entrypoints.dto.CapacityDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    public static Capacity capacity(long id, int technologies) {
+        return new Capacity(id, "Capacity " + id, "Description for capacity " + id, technologyIds(technologies));
+    }
+
+    public static CapacityDTO capacityDTO(long id, int technologies) {
+        return CapacityDTO.builder()
+                .name("Capacity " + id)
+                .description("Description for capacity " + id)
+                .technologyIds(technologyIds(technologies))
+                .build();
+    }
+
+    public static CapacityEntity capacityEntity(long id) {
+        CapacityEntity entity = new CapacityEntity();
+        entity.setId(id);
+        entity.setName("Capacity " + id);
+        entity.setDescription("Description for capacity " + id);
+        entity.setTechnologyCount(5);
+        return entity;
+    }
+
+    public static List<CapacityWithTechnologies> capacitiesWithTechnologies(int size, int technologies) {
+        List<CapacityWithTechnologies> capacities = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            capacities.add(new CapacityWithTechnologies(id, "Capacity " + id, "Description for capacity " + id,
+                    LongStream.rangeClosed(1, technologies)
+                            .mapToObj(technologyId -> new TechnologySummary(technologyId, "Technology " + technologyId))
+                            .toList()));
+        }
+        return capacities;
+    }
+
+    public static List<Long> technologyIds(int technologies) {
+        return LongStream.rangeClosed(1, technologies).boxed().toList();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.resilient_api.benchmark.support;
+
+import com.example.resilient_api.domain.model.Capacity;
+import com.example.resilient_api.domain.model.PaginationRequest;
+import com.example.resilient_api.domain.model.TotalCount;
+import com.example.resilient_api.domain.spi.CapacityPersistencePort;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Persistencia en memoria que responde de inmediato, para medir solo la lógica del caso de uso.
+ */
+public class StubCapacityPersistencePort implements CapacityPersistencePort {
+
+    private static final Mono<Boolean> NOT_FOUND = Mono.just(false);
+
+    @Override
+    public Mono<Capacity> save(Capacity capacity) {
+        return Mono.just(new Capacity(1L, capacity.name(), capacity.description(), capacity.technologyIds()));
+    }
+
+    @Override
+    public Flux<Capacity> saveAll(List<Capacity> capacities) {
+        return Flux.fromIterable(capacities);
+    }
+
+    @Override
+    public Mono<Boolean> existByName(String name) {
+        return NOT_FOUND;
+    }
+
+    @Override
+    public Flux<String> findExistingNames(List<String> names) {
+        return Flux.empty();
+    }
+
+    @Override
+    public Flux<Long> findExistingIdsByIds(List<Long> ids) {
+        return Flux.fromIterable(ids);
+    }
+
+    @Override
+    public Flux<Capacity> findAllPaginated(PaginationRequest paginationRequest) {
+        return Flux.empty();
+    }
+
+    @Override
+    public Mono<TotalCount> count(PaginationRequest.CountMode countMode) {
+        return Mono.just(TotalCount.exact(0));
+    }
+}
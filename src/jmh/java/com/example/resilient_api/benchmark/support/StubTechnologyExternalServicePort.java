@@ -0,0 +1,28 @@
+package com.example.resilient_api.benchmark.support;
+
+import com.example.resilient_api.domain.model.IdExistence;
+import com.example.resilient_api.domain.model.TechnologySummary;
+import com.example.resilient_api.domain.spi.TechnologyExternalServicePort;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Servicio de tecnologías sin red: todas las tecnologías existen.
+ */
+public class StubTechnologyExternalServicePort implements TechnologyExternalServicePort {
+
+    @Override
+    public Mono<IdExistence> checkTechnologiesExist(List<Long> technologyIds, String messageId) {
+        IdExistence.Builder existence = IdExistence.builder(technologyIds.size());
+        technologyIds.forEach(existence::markPresent);
+        return Mono.just(existence.build());
+    }
+
+    @Override
+    public Flux<TechnologySummary> getTechnologiesByIds(List<Long> technologyIds, String messageId) {
+        return Flux.fromIterable(technologyIds)
+                .map(id -> new TechnologySummary(id, "Technology " + id));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.resilient_api.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Postgres embebido (binarios locales, sin Docker) con el esquema de la aplicación y N capacidades de prueba.
+ */
+public class EmbeddedDatabase implements AutoCloseable {
+
+    private static final String SCHEMA_SCRIPT = "schema.sql";
+    private static final String[] MIGRATION_SCRIPTS = {
+            "migrations/001_capacity_technology_count.sql",
+            "migrations/002_capacity_technology_ids.sql",
+            "migrations/003_capacity_technology_count_desc.sql"
+    };
+
+    private EmbeddedPostgres postgres;
+
+    public EmbeddedDatabase start() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        return this;
+    }
+
+    public String r2dbcUrl() {
+        return "r2dbc:postgresql://localhost:" + postgres.getPort() + "/postgres";
+    }
+
+    public void seed(int capacities, int technologies) throws SQLException {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource(SCHEMA_SCRIPT));
+
+            // Entre 3 y 20 tecnologías por capacidad, igual que las reglas de registerCapacity
+            try (PreparedStatement insertCapacities = connection.prepareStatement("""
+                    INSERT INTO capacity (name, description, technology_count)
+                    SELECT 'Capacity ' || lpad(g::text, 8, '0'), 'Seeded capacity ' || g, 3 + (g % 18)
+                    FROM generate_series(1, ?) g
+                    ON CONFLICT (name) DO NOTHING
+                    """)) {
+                insertCapacities.setInt(1, capacities);
+                insertCapacities.executeUpdate();
+            }
+            try (PreparedStatement insertLinks = connection.prepareStatement("""
+                    INSERT INTO capacity_technology (capacity_id, technology_id)
+                    SELECT c.id, 1 + ((c.id * 7 + t) % ?)
+                    FROM capacity c, generate_series(1, c.technology_count) t
+                    ON CONFLICT DO NOTHING
+                    """)) {
+                insertLinks.setInt(1, technologies);
+                insertLinks.executeUpdate();
+            }
+            // Las migraciones rellenan las columnas desnormalizadas a partir de los datos sembrados
+            for (String script : MIGRATION_SCRIPTS) {
+                ScriptUtils.executeSqlScript(connection, new ClassPathResource(script));
+            }
+            try (Statement analyze = connection.createStatement()) {
+                analyze.execute("ANALYZE capacity");
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.resilient_api.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Modelo cerrado: N usuarios concurrentes encadenan requests durante el tiempo indicado.
+ */
+public class LoadDriver {
+
+    private final WebClient webClient;
+    private final int concurrency;
+
+    public LoadDriver(WebClient webClient, int concurrency) {
+        this.webClient = webClient;
+        this.concurrency = concurrency;
+    }
+
+    public ScenarioResult run(LoadScenario scenario, Duration warmup, Duration duration) {
+        drive(scenario, warmup, new Recorder(3), new AtomicLong(), new AtomicLong());
+
+        Recorder recorder = new Recorder(3);
+        AtomicLong requests = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        long startedAt = System.nanoTime();
+        drive(scenario, duration, recorder, requests, errors);
+        long elapsedNanos = System.nanoTime() - startedAt;
+
+        Histogram histogram = recorder.getIntervalHistogram();
+        return new ScenarioResult(
+                scenario.name(),
+                requests.get(),
+                errors.get(),
+                requests.get() / (elapsedNanos / 1_000_000_000.0),
+                micros(histogram.getValueAtPercentile(50)),
+                micros(histogram.getValueAtPercentile(90)),
+                micros(histogram.getValueAtPercentile(99)),
+                micros(histogram.getValueAtPercentile(99.9)),
+                micros(histogram.getMaxValue())
+        );
+    }
+
+    private void drive(LoadScenario scenario, Duration duration, Recorder recorder,
+                       AtomicLong requests, AtomicLong errors) {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong sequence = new AtomicLong();
+
+        Flux.range(0, concurrency)
+                .flatMap(user -> Mono.defer(() -> timedRequest(scenario, sequence.incrementAndGet(), recorder,
+                                requests, errors))
+                        .repeat(() -> System.nanoTime() < deadline), concurrency)
+                .blockLast();
+    }
+
+    private Mono<Void> timedRequest(LoadScenario scenario, long sequence, Recorder recorder,
+                                    AtomicLong requests, AtomicLong errors) {
+        long start = System.nanoTime();
+        return scenario.request().apply(webClient, sequence)
+                .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().is2xxSuccessful()))
+                .onErrorReturn(false)
+                .doOnNext(success -> {
+                    recorder.recordValue(System.nanoTime() - start);
+                    requests.incrementAndGet();
+                    if (!success) {
+                        errors.incrementAndGet();
+                    }
+                })
+                .then();
+    }
+
+    private static double micros(long nanos) {
+        return nanos / (double) TimeUnit.MICROSECONDS.toNanos(1);
+    }
+
+    public record ScenarioResult(
+            String scenario,
+            long requests,
+            long errors,
+            double throughputPerSecond,
+            double p50Micros,
+            double p90Micros,
+            double p99Micros,
+            double p999Micros,
+            double maxMicros
+    ) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.resilient_api.loadtest;
+
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.function.BiFunction;
+
+/**
+ * Un endpoint a medir; la función recibe el número de request para variar página o nombre.
+ */
+public record LoadScenario(String name, BiFunction<WebClient, Long, WebClient.RequestHeadersSpec<?>> request) {
+}
@@ -0,0 +1,122 @@
+package com.example.resilient_api.loadtest;
+
+import com.example.resilient_api.ResilientApiApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Levanta Postgres embebido, el sustituto del servicio de tecnologías y la aplicación completa,
+ * y mide cada endpoint y modo de ordenamiento. Todo en local, sin red ni Docker.
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+
+        try (EmbeddedDatabase database = new EmbeddedDatabase().start();
+             StubTechnologyServer technologyServer = new StubTechnologyServer(settings.technologies(),
+                     settings.technologyLatency(), settings.technologyErrorRate()).start()) {
+
+            database.seed(settings.capacities(), settings.technologies());
+
+            try (ConfigurableApplicationContext application = new SpringApplicationBuilder(ResilientApiApplication.class)
+                    .properties(Map.of(
+                            "server.port", "0",
+                            "spring.r2dbc.url", database.r2dbcUrl(),
+                            "spring.r2dbc.username", "postgres",
+                            "spring.r2dbc.password", "postgres",
+                            "external.technology.base-url", technologyServer.baseUrl(),
+                            "logging.level.com.example.resilient_api", "WARN"))
+                    .run(args)) {
+
+                String port = application.getEnvironment().getProperty("local.server.port");
+                List<LoadDriver.ScenarioResult> results = run(settings, "http://localhost:" + port);
+                print(settings, results);
+                write(settings, results);
+            }
+        }
+    }
+
+    private static List<LoadDriver.ScenarioResult> run(LoadTestSettings settings, String baseUrl) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("loadtest-driver")
+                .maxConnections(settings.concurrency())
+                .build();
+        WebClient webClient = WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)))
+                .build();
+        LoadDriver driver = new LoadDriver(webClient, settings.concurrency());
+        int pages = Math.max(1, settings.capacities() / settings.pageSize());
+
+        List<LoadScenario> scenarios = new ArrayList<>();
+        for (String sortBy : List.of("NAME", "TECHNOLOGY_COUNT")) {
+            for (String direction : List.of("ASC", "DESC")) {
+                scenarios.add(new LoadScenario("GET /capacity sortBy=" + sortBy + " " + direction,
+                        (client, sequence) -> client.get()
+                                .uri(uri -> uri.path("/capacity")
+                                        .queryParam("page", sequence % pages)
+                                        .queryParam("size", settings.pageSize())
+                                        .queryParam("sortBy", sortBy)
+                                        .queryParam("sortDirection", direction)
+                                        .build())
+                                .header("x-message-id", UUID.randomUUID().toString())));
+            }
+        }
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        scenarios.add(new LoadScenario("POST /capacity",
+                (client, sequence) -> client.post()
+                        .uri("/capacity")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("x-message-id", UUID.randomUUID().toString())
+                        .bodyValue(Map.of(
+                                "name", "Load " + runId + " " + sequence,
+                                "description", "Load test capacity " + sequence,
+                                "technologyIds", List.of(
+                                        1 + sequence % settings.technologies(),
+                                        1 + (sequence + 1) % settings.technologies(),
+                                        1 + (sequence + 2) % settings.technologies())))));
+
+        try {
+            return scenarios.stream()
+                    .map(scenario -> driver.run(scenario, settings.warmup(), settings.duration()))
+                    .toList();
+        } finally {
+            connectionProvider.dispose();
+        }
+    }
+
+    private static void print(LoadTestSettings settings, List<LoadDriver.ScenarioResult> results) {
+        System.out.printf("%nCapacities: %d | concurrency: %d | duration: %s | technology latency: %s | error rate: %.2f%n",
+                settings.capacities(), settings.concurrency(), settings.duration(),
+                settings.technologyLatency(), settings.technologyErrorRate());
+        System.out.printf("%-42s %10s %8s %10s %10s %10s %10s %10s%n",
+                "scenario", "req/s", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        results.forEach(result -> System.out.printf("%-42s %10.1f %8d %10.2f %10.2f %10.2f %10.2f %10.2f%n",
+                result.scenario(), result.throughputPerSecond(), result.errors(),
+                result.p50Micros() / 1000, result.p90Micros() / 1000, result.p99Micros() / 1000,
+                result.p999Micros() / 1000, result.maxMicros() / 1000));
+    }
+
+    private static void write(LoadTestSettings settings, List<LoadDriver.ScenarioResult> results) throws Exception {
+        Path report = Path.of(settings.reportFile());
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(report.toFile(), Map.of("settings", settings, "results", results));
+        System.out.println("Report written to " + report.toAbsolutePath());
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.resilient_api.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+
+/**
+ * Parámetros del harness, leídos de propiedades de sistema (./gradlew loadTest -Dloadtest.concurrency=64 ...).
+ */
+public record LoadTestSettings(
+        int capacities,
+        int technologies,
+        int concurrency,
+        Duration warmup,
+        Duration duration,
+        int pageSize,
+        Duration technologyLatency,
+        double technologyErrorRate,
+        String reportFile
+) {
+
+    public static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.capacities", 10_000),
+                Integer.getInteger("loadtest.technologies", 500),
+                Integer.getInteger("loadtest.concurrency", 32),
+                duration("loadtest.warmup", "10s"),
+                duration("loadtest.duration", "30s"),
+                Integer.getInteger("loadtest.page-size", 20),
+                duration("loadtest.technology-latency", "5ms"),
+                Double.parseDouble(System.getProperty("loadtest.technology-error-rate", "0.0")),
+                System.getProperty("loadtest.report-file", "build/results/loadtest/report.json")
+        );
+    }
+
+    private static Duration duration(String property, String defaultValue) {
+        return DurationStyle.detectAndParse(System.getProperty(property, defaultValue));
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.resilient_api.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Sustituto local del microservicio de tecnologías con latencia y errores configurables.
+ * Existen las tecnologías 1..catalogSize y cada una se llama "Technology {id}".
+ */
+public class StubTechnologyServer implements AutoCloseable {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int catalogSize;
+    private final Duration latency;
+    private final double errorRate;
+    private DisposableServer server;
+
+    public StubTechnologyServer(int catalogSize, Duration latency, double errorRate) {
+        this.catalogSize = catalogSize;
+        this.latency = latency;
+        this.errorRate = errorRate;
+    }
+
+    public StubTechnologyServer start() {
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .post("/technology/by-ids", handle(this::technologiesByIds))
+                        .post("/technology/check-exists", handle(this::checkExists)))
+                .bindNow();
+        return this;
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.port();
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.disposeNow();
+        }
+    }
+
+    private BiFunction<HttpServerRequest, HttpServerResponse, Publisher<Void>> handle(
+            Function<JsonNode, JsonNode> body) {
+        return (request, response) -> request.receive()
+                .aggregate()
+                .asByteArray()
+                .delayElement(latency)
+                .flatMap(bytes -> {
+                    if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                        return response.status(HttpResponseStatus.INTERNAL_SERVER_ERROR).send().then();
+                    }
+                    try {
+                        byte[] payload = objectMapper.writeValueAsBytes(body.apply(objectMapper.readTree(bytes)));
+                        return response.header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                                .sendByteArray(Mono.just(payload))
+                                .then();
+                    } catch (Exception ex) {
+                        return response.status(HttpResponseStatus.BAD_REQUEST).send().then();
+                    }
+                });
+    }
+
+    private JsonNode technologiesByIds(JsonNode request) {
+        ArrayNode technologies = objectMapper.createArrayNode();
+        request.path("ids").forEach(id -> {
+            if (exists(id.asLong())) {
+                technologies.addObject()
+                        .put("id", id.asLong())
+                        .put("name", "Technology " + id.asLong());
+            }
+        });
+        return technologies;
+    }
+
+    private JsonNode checkExists(JsonNode request) {
+        ObjectNode existence = objectMapper.createObjectNode();
+        request.path("ids").forEach(id -> existence.put(id.asText(), exists(id.asLong())));
+        return existence;
+    }
+
+    private boolean exists(long id) {
+        return id >= 1 && id <= catalogSize;
+    }
+}
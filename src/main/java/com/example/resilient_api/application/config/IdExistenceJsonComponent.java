@@ -0,0 +1,60 @@
+package com.example.resilient_api.application.config;
+
+import com.example.resilient_api.domain.model.IdExistence;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+/**
+ * Formato JSON de {@link IdExistence}: un objeto {"id": true|false}, el mismo contrato de check-exists.
+ * Se lee token a token, sin pasar por un Map boxeado.
+ */
+@JsonComponent
+public class IdExistenceJsonComponent {
+
+    public static class Serializer extends JsonSerializer<IdExistence> {
+
+        @Override
+        public void serialize(IdExistence existence, JsonGenerator generator, SerializerProvider serializers)
+                throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < existence.size(); i++) {
+                generator.writeFieldName(Long.toString(existence.idAt(i)));
+                generator.writeBoolean(existence.presentAt(i));
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    public static class Deserializer extends JsonDeserializer<IdExistence> {
+
+        @Override
+        public IdExistence deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                return (IdExistence) context.handleUnexpectedToken(IdExistence.class, parser);
+            }
+
+            IdExistence.Builder builder = IdExistence.builder();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                long id;
+                try {
+                    id = Long.parseLong(parser.currentName());
+                } catch (NumberFormatException ex) {
+                    return (IdExistence) context.handleWeirdKey(IdExistence.class, parser.currentName(),
+                            "technology id must be numeric");
+                }
+                // null o cualquier valor distinto de true se toma como ausente
+                builder.add(id, parser.nextToken() == JsonToken.VALUE_TRUE);
+                parser.skipChildren();
+            }
+            return builder.build();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.resilient_api.application.config;
+
+import com.example.resilient_api.infrastructure.adapters.persistenceadapter.CatalogueChangeListener;
+import com.example.resilient_api.infrastructure.adapters.persistenceadapter.ReplicaRoutingConnectionFactory;
+import com.example.resilient_api.infrastructure.cache.CatalogueInvalidationBus;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.postgresql.PostgresqlConnectionFactoryProvider;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.ValidationDepth;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+
+@Configuration
+public class R2dbcConfig {
+
+    private static final String CAPACITY_DB_POOL = "capacity-db";
+    private static final String CAPACITY_DB_REPLICA_POOL = "capacity-db-replica";
+
+    @Value("${spring.r2dbc.url}")
+    private String url;
+
+    @Value("${spring.r2dbc.username}")
+    private String username;
+
+    @Value("${spring.r2dbc.password}")
+    private String password;
+
+    @Value("${capacity.db.pool.initial-size:5}")
+    private int initialSize;
+
+    @Value("${capacity.db.pool.min-idle:5}")
+    private int minIdle;
+
+    @Value("${capacity.db.pool.max-size:20}")
+    private int maxSize;
+
+    @Value("${capacity.db.pool.max-acquire-time:2s}")
+    private Duration maxAcquireTime;
+
+    @Value("${capacity.db.pool.max-create-connection-time:2s}")
+    private Duration maxCreateConnectionTime;
+
+    @Value("${capacity.db.pool.max-idle-time:10m}")
+    private Duration maxIdleTime;
+
+    @Value("${capacity.db.pool.max-life-time:30m}")
+    private Duration maxLifeTime;
+
+    @Value("${capacity.db.pool.background-eviction-interval:30s}")
+    private Duration backgroundEvictionInterval;
+
+    @Value("${capacity.db.pool.validation-depth:REMOTE}")
+    private ValidationDepth validationDepth;
+
+    @Value("${capacity.db.prepared-statement-cache-queries:256}")
+    private int preparedStatementCacheQueries;
+
+    @Value("${capacity.db.replica.url:}")
+    private String replicaUrl;
+
+    @Value("${capacity.db.replica.username:${spring.r2dbc.username}}")
+    private String replicaUsername;
+
+    @Value("${capacity.db.replica.password:${spring.r2dbc.password}}")
+    private String replicaPassword;
+
+    @Value("${capacity.db.replica.read-your-writes-window:2s}")
+    private Duration readYourWritesWindow;
+
+    @Value("${capacity.catalogue.notifications.channel:capacity_catalogue}")
+    private String catalogueChannel;
+
+    @Value("${capacity.catalogue.notifications.reconnect-delay:1s}")
+    private Duration catalogueReconnectDelay;
+
+    /**
+     * Reemplaza el pool autoconfigurado; por cada ConnectionPool Spring Boot publica r2dbc.pool.*
+     * (acquired, allocated, idle, pending) con el tag name del pool.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool primaryConnectionPool() {
+        return connectionPool(CAPACITY_DB_POOL, url, username, password);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnProperty(name = "capacity.db.replica.enabled", havingValue = "true")
+    public ConnectionPool replicaConnectionPool() {
+        return connectionPool(CAPACITY_DB_REPLICA_POOL, replicaUrl, replicaUsername, replicaPassword);
+    }
+
+    /**
+     * ConnectionFactory que usan DatabaseClient, los repositorios y el TransactionManager.
+     * Sin réplica configurada todo va al primario.
+     */
+    @Bean
+    @Primary
+    public ReplicaRoutingConnectionFactory connectionFactory(
+            @Qualifier("primaryConnectionPool") ConnectionPool primaryConnectionPool,
+            @Qualifier("replicaConnectionPool") ObjectProvider<ConnectionPool> replicaConnectionPool) {
+        return new ReplicaRoutingConnectionFactory(primaryConnectionPool, replicaConnectionPool.getIfAvailable(),
+                readYourWritesWindow);
+    }
+
+    /**
+     * LISTEN sobre el primario, que es donde se ejecutan los NOTIFY; usa una conexión fuera del pool.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "capacity.catalogue.notifications.enabled", havingValue = "true",
+            matchIfMissing = true)
+    public CatalogueChangeListener catalogueChangeListener(CatalogueInvalidationBus catalogueInvalidationBus) {
+        return new CatalogueChangeListener(postgresConnectionFactory(url, username, password),
+                catalogueChannel, catalogueInvalidationBus, catalogueReconnectDelay);
+    }
+
+    private ConnectionPool connectionPool(String name, String url, String username, String password) {
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(
+                        postgresConnectionFactory(url, username, password))
+                .name(name)
+                .initialSize(initialSize)
+                .minIdle(minIdle)
+                .maxSize(maxSize)
+                .maxAcquireTime(maxAcquireTime)
+                .maxCreateConnectionTime(maxCreateConnectionTime)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                // Las conexiones ociosas o vencidas se retiran en segundo plano, no al adquirirlas
+                .backgroundEvictionInterval(backgroundEvictionInterval)
+                // r2dbc-pool valida solo al adquirir, no en la tarea de fondo: REMOTE hace una ida y vuelta
+                // a la base por adquisición y descarta la conexión que el servidor o un firewall cerró
+                .validationDepth(validationDepth)
+                .build());
+    }
+
+    private ConnectionFactory postgresConnectionFactory(String url, String username, String password) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                // Sentencias preparadas por conexión; las consultas usan texto SQL fijo para que el caché acierte
+                .option(PostgresqlConnectionFactoryProvider.PREPARED_STATEMENT_CACHE_QUERIES,
+                        preparedStatementCacheQueries)
+                .build();
+        return ConnectionFactories.get(options);
+    }
+}
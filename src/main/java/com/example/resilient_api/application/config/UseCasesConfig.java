@@ -1,43 +1,221 @@
 package com.example.resilient_api.application.config;
 
 import com.example.resilient_api.domain.api.CapacityServicePort;
+import com.example.resilient_api.domain.model.EnrichmentSettings;
+import com.example.resilient_api.domain.model.PaginationRequest;
 import com.example.resilient_api.domain.spi.CapacityPersistencePort;
 import com.example.resilient_api.domain.spi.TechnologyExternalServicePort;
 import com.example.resilient_api.domain.usecase.CapacityUseCase;
+import com.example.resilient_api.infrastructure.adapters.externalservice.CachedTechnologyExternalServiceAdapter;
+import com.example.resilient_api.infrastructure.adapters.externalservice.CoalescingTechnologyExternalServiceAdapter;
+import com.example.resilient_api.infrastructure.adapters.externalservice.ObservedTechnologyExternalServiceAdapter;
 import com.example.resilient_api.infrastructure.adapters.externalservice.TechnologyExternalServiceAdapter;
 import com.example.resilient_api.infrastructure.adapters.persistenceadapter.CapacityPersistenceAdapter;
-import com.example.resilient_api.infrastructure.adapters.persistenceadapter.mapper.CapacityEntityMapper;
+import com.example.resilient_api.infrastructure.adapters.persistenceadapter.IndexedCapacityPersistenceAdapter;
+import com.example.resilient_api.infrastructure.adapters.persistenceadapter.ObservedCapacityPersistenceAdapter;
+import com.example.resilient_api.infrastructure.adapters.persistenceadapter.ReplicaRoutedCapacityPersistenceAdapter;
+import com.example.resilient_api.infrastructure.adapters.persistenceadapter.ReplicaRoutingConnectionFactory;
 import com.example.resilient_api.infrastructure.adapters.persistenceadapter.repository.CapacityRepository;
-import com.example.resilient_api.infrastructure.adapters.persistenceadapter.repository.CapacityTechnologyRepository;
 import com.example.resilient_api.infrastructure.adapters.webclient.TechnologyWebClient;
+import com.example.resilient_api.infrastructure.cache.CapacityPageCache;
+import com.example.resilient_api.infrastructure.cache.CatalogueInvalidationBus;
+import com.example.resilient_api.infrastructure.cache.CatalogueVersion;
+import com.example.resilient_api.infrastructure.cache.VersionedCapacityServicePort;
+import com.example.resilient_api.infrastructure.observability.ObservedCapacityServicePort;
+import com.example.resilient_api.infrastructure.observability.RequestLog;
+import com.example.resilient_api.infrastructure.observability.StageObservations;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import java.time.Duration;
 
 @Configuration
 @RequiredArgsConstructor
 public class UseCasesConfig {
     private final CapacityRepository capacityRepository;
-    private final CapacityTechnologyRepository capacityTechnologyRepository;
-    private final CapacityEntityMapper capacityEntityMapper;
     private final TechnologyWebClient technologyWebClient;
     private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final ReplicaRoutingConnectionFactory routingConnectionFactory;
+
+    @Value("${capacity.listing.count.default-mode:EXACT}")
+    private PaginationRequest.CountMode defaultCountMode;
+
+    @Value("${capacity.listing.count.cache-ttl:30s}")
+    private Duration countCacheTtl;
+
+    @Value("${capacity.listing.enrichment.concurrency:4}")
+    private int enrichmentConcurrency;
+
+    @Value("${capacity.listing.enrichment.batch-size:10}")
+    private int enrichmentBatchSize;
+
+    @Value("${capacity.listing.enrichment.timeout:2s}")
+    private Duration enrichmentTimeout;
+
+    @Value("${capacity.id-index.mode:DB_VERIFIED}")
+    private IndexedCapacityPersistenceAdapter.Mode idIndexMode;
+
+    @Value("${capacity.id-index.reconcile-interval:5m}")
+    private Duration idIndexReconcileInterval;
+
+    @Value("${external.technology.coalescing.enabled:true}")
+    private boolean technologyCoalescingEnabled;
+
+    @Value("${external.technology.coalescing.batch-window:5ms}")
+    private Duration technologyCoalescingBatchWindow;
+
+    @Value("${external.technology.coalescing.max-batch-size:200}")
+    private int technologyCoalescingMaxBatchSize;
+
+    @Value("${external.technology.cache.enabled:true}")
+    private boolean technologyCacheEnabled;
+
+    @Value("${external.technology.cache.maximum-size:10000}")
+    private long technologyCacheMaximumSize;
+
+    @Value("${external.technology.cache.expire-after-write:30m}")
+    private Duration technologyCacheExpireAfterWrite;
+
+    @Value("${external.technology.cache.refresh-after-write:5m}")
+    private Duration technologyCacheRefreshAfterWrite;
+
+    @Value("${external.technology.cache.last-known-maximum-size:50000}")
+    private long technologyCacheLastKnownMaximumSize;
+
+    @Value("${capacity.listing.page-cache.maximum-size:1000}")
+    private long pageCacheMaximumSize;
+
+    @Value("${capacity.listing.page-cache.expire-after-write:30s}")
+    private Duration pageCacheExpireAfterWrite;
+
+    @Value("${capacity.catalogue.notifications.enabled:true}")
+    private boolean catalogueNotificationsEnabled;
+
+    @Value("${capacity.catalogue.notifications.channel:capacity_catalogue}")
+    private String catalogueChannel;
+
+    @Value("${capacity.logging.success-sample-rate:0.01}")
+    private double successLogSampleRate;
 
     @Bean
-    public CapacityPersistencePort capacityPersistencePort() {
-        return new CapacityPersistenceAdapter(capacityRepository, capacityTechnologyRepository,
-                capacityEntityMapper, databaseClient);
+    public CatalogueVersion catalogueVersion() {
+        return new CatalogueVersion();
     }
 
     @Bean
-    public TechnologyExternalServicePort technologyExternalServicePort() {
-        return new TechnologyExternalServiceAdapter(technologyWebClient);
+    public CatalogueInvalidationBus catalogueInvalidationBus(CatalogueVersion catalogueVersion) {
+        CatalogueInvalidationBus catalogueInvalidationBus = new CatalogueInvalidationBus();
+        // Un cambio en cualquier instancia deja obsoletas las páginas cacheadas en esta
+        catalogueInvalidationBus.subscribe(change -> catalogueVersion.bump());
+        return catalogueInvalidationBus;
+    }
+
+    @Bean
+    public CapacityPageCache capacityPageCache(CatalogueVersion catalogueVersion, MeterRegistry meterRegistry) {
+        return new CapacityPageCache(catalogueVersion, pageCacheMaximumSize, pageCacheExpireAfterWrite,
+                meterRegistry);
+    }
+
+    @Bean
+    public RequestLog requestLog() {
+        return new RequestLog(successLogSampleRate);
+    }
+
+    @Bean
+    public StageObservations stageObservations(ObservationRegistry observationRegistry) {
+        return new StageObservations(observationRegistry);
+    }
+
+    /**
+     * Cadena de adaptadores que llega a la base. Con el índice de ids activo queda por debajo de él.
+     */
+    @Bean
+    public CapacityPersistencePort databaseCapacityPersistencePort(StageObservations stageObservations,
+                                                                    CatalogueInvalidationBus catalogueInvalidationBus) {
+        CapacityPersistenceAdapter persistenceAdapter = new CapacityPersistenceAdapter(capacityRepository,
+                databaseClient, transactionalOperator, defaultCountMode, countCacheTtl,
+                catalogueNotificationsEnabled ? catalogueChannel : null);
+        catalogueInvalidationBus.subscribe(change -> persistenceAdapter.invalidateCachedCount());
+
+        CapacityPersistencePort capacityPersistenceAdapter = persistenceAdapter;
+        if (routingConnectionFactory.isReplicaAvailable()) {
+            capacityPersistenceAdapter = new ReplicaRoutedCapacityPersistenceAdapter(capacityPersistenceAdapter,
+                    routingConnectionFactory);
+        }
+        // La observación va por debajo del índice: solo mide las consultas que llegan a la base
+        return new ObservedCapacityPersistenceAdapter(capacityPersistenceAdapter, stageObservations);
+    }
+
+    /**
+     * Con su propio tipo para que el contenedor lo arranque y lo detenga como SmartLifecycle (carga y reconciliación
+     * del índice); como @Primary es el CapacityPersistencePort que recibe el caso de uso.
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "capacity.id-index.enabled", havingValue = "true", matchIfMissing = true)
+    public IndexedCapacityPersistenceAdapter indexedCapacityPersistenceAdapter(
+            @Qualifier("databaseCapacityPersistencePort") CapacityPersistencePort databaseCapacityPersistencePort,
+            CatalogueInvalidationBus catalogueInvalidationBus,
+            MeterRegistry meterRegistry) {
+        IndexedCapacityPersistenceAdapter indexedAdapter = new IndexedCapacityPersistenceAdapter(
+                databaseCapacityPersistencePort, databaseClient, idIndexMode, idIndexReconcileInterval, meterRegistry);
+        catalogueInvalidationBus.subscribe(indexedAdapter::onCatalogueChange);
+        return indexedAdapter;
+    }
+
+    @Bean
+    public TechnologyExternalServicePort technologyExternalServicePort(StageObservations stageObservations,
+                                                                        MeterRegistry meterRegistry) {
+        // capacity.technology.client mide la llamada HTTP real; capacity.technology lo que percibe el caso de uso
+        TechnologyExternalServicePort technologyExternalServiceAdapter = new ObservedTechnologyExternalServiceAdapter(
+                new TechnologyExternalServiceAdapter(technologyWebClient), stageObservations,
+                "capacity.technology.client", meterRegistry);
+        if (technologyCoalescingEnabled) {
+            technologyExternalServiceAdapter = new CoalescingTechnologyExternalServiceAdapter(
+                    technologyExternalServiceAdapter, technologyCoalescingBatchWindow,
+                    technologyCoalescingMaxBatchSize);
+        }
+        if (technologyCacheEnabled) {
+            technologyExternalServiceAdapter = new CachedTechnologyExternalServiceAdapter(
+                    technologyExternalServiceAdapter, technologyCacheMaximumSize, technologyCacheExpireAfterWrite,
+                    technologyCacheRefreshAfterWrite, technologyCacheLastKnownMaximumSize, meterRegistry);
+        }
+        return new ObservedTechnologyExternalServiceAdapter(technologyExternalServiceAdapter, stageObservations,
+                "capacity.technology", meterRegistry);
     }
 
     @Bean
     public CapacityServicePort capacityServicePort(CapacityPersistencePort capacityPersistencePort,
-                                                    TechnologyExternalServicePort technologyExternalServicePort) {
-        return new CapacityUseCase(capacityPersistencePort, technologyExternalServicePort);
+                                                    TechnologyExternalServicePort technologyExternalServicePort,
+                                                    StageObservations stageObservations,
+                                                    CatalogueVersion catalogueVersion,
+                                                    MeterRegistry meterRegistry) {
+        CapacityUseCase capacityUseCase = new CapacityUseCase(capacityPersistencePort, technologyExternalServicePort,
+                new EnrichmentSettings(enrichmentConcurrency, enrichmentBatchSize, enrichmentTimeout));
+
+        Gauge.builder("capacity.enrichment.concurrency.limit", capacityUseCase,
+                        useCase -> useCase.enrichmentSettings().concurrency())
+                .description("Maximum technology enrichment batches running at once")
+                .register(meterRegistry);
+        Gauge.builder("capacity.enrichment.in.flight", capacityUseCase, CapacityUseCase::inFlightEnrichments)
+                .description("Technology enrichment batches currently running")
+                .register(meterRegistry);
+        FunctionCounter.builder("capacity.enrichment.degraded", capacityUseCase, CapacityUseCase::degradedEnrichments)
+                .description("Capacities returned without technologies because the lookup failed or timed out")
+                .register(meterRegistry);
+        return new ObservedCapacityServicePort(new VersionedCapacityServicePort(capacityUseCase, catalogueVersion),
+                stageObservations);
     }
 }
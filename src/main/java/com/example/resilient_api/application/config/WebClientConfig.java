@@ -1,15 +1,90 @@
 package com.example.resilient_api.application.config;
 
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
 
 @Configuration
 public class WebClientConfig {
 
+    private static final String TECHNOLOGY_SERVICE_POOL = "technology-service";
+
+    @Value("${external.technology.base-url}")
+    private String technologyBaseUrl;
+
+    @Value("${external.technology.http.max-connections:100}")
+    private int maxConnections;
+
+    @Value("${external.technology.http.pending-acquire-max-count:500}")
+    private int pendingAcquireMaxCount;
+
+    @Value("${external.technology.http.pending-acquire-timeout:2s}")
+    private Duration pendingAcquireTimeout;
+
+    @Value("${external.technology.http.max-idle-time:30s}")
+    private Duration maxIdleTime;
+
+    @Value("${external.technology.http.max-life-time:5m}")
+    private Duration maxLifeTime;
+
+    @Value("${external.technology.http.evict-in-background:30s}")
+    private Duration evictInBackground;
+
+    @Value("${external.technology.http.connect-timeout:500ms}")
+    private Duration connectTimeout;
+
+    @Value("${external.technology.http.response-timeout:1s}")
+    private Duration responseTimeout;
+
+    @Value("${external.technology.http.compression:true}")
+    private boolean compression;
+
+    @Value("${external.technology.http.keep-alive:true}")
+    private boolean keepAlive;
+
+    @Value("${external.technology.http.h2c-enabled:false}")
+    private boolean h2cEnabled;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider technologyServiceConnectionProvider() {
+        // metrics(true) publica reactor.netty.connection.provider.* en el registro global de Micrometer
+        return ConnectionProvider.builder(TECHNOLOGY_SERVICE_POOL)
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(evictInBackground)
+                .metrics(true)
+                .build();
+    }
+
     @Bean
-    public WebClient.Builder webClientBuilder() {
-        return WebClient.builder();
+    public WebClient technologyServiceWebClient(WebClient.Builder webClientBuilder,
+                                                ConnectionProvider technologyServiceConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(technologyServiceConnectionProvider)
+                .protocol(h2cEnabled
+                        ? new HttpProtocol[]{HttpProtocol.H2C, HttpProtocol.HTTP11}
+                        : new HttpProtocol[]{HttpProtocol.HTTP11})
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, keepAlive)
+                .keepAlive(keepAlive)
+                .compress(compression)
+                // responseTimeout aplica por request; un ReadTimeoutHandler cerraría las conexiones ociosas del pool
+                .responseTimeout(responseTimeout);
+
+        // Se parte del builder de Spring Boot para conservar codecs y observabilidad
+        return webClientBuilder
+                .baseUrl(technologyBaseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
     }
 }
-
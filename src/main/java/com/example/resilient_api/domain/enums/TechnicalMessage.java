@@ -22,7 +22,9 @@ public enum TechnicalMessage {
     CAPACITY_TECHNOLOGIES_MAX("400", "Capacity cannot have more than 20 technologies", "technologyIds"),
     CAPACITY_TECHNOLOGIES_DUPLICATED("400", "Capacity cannot have duplicate technologies", "technologyIds"),
     TECHNOLOGIES_NOT_FOUND("400", "Some technologies do not exist", "technologyIds"),
-    TECHNOLOGY_SERVICE_ERROR("500", "Error communicating with technology service", "")
+    TECHNOLOGY_SERVICE_ERROR("500", "Error communicating with technology service", ""),
+    TECHNOLOGY_SERVICE_UNAVAILABLE("503", "Technology service is temporarily unavailable, please try again", ""),
+    INVALID_CURSOR("400", "Invalid pagination cursor, please verify data", "cursor")
     ;
 
     private final String code;
@@ -0,0 +1,18 @@
+package com.example.resilient_api.domain.model;
+
+import com.example.resilient_api.domain.enums.TechnicalMessage;
+
+public record CapacityImportResult(long line, String name, Long id, TechnicalMessage error) {
+
+    public static CapacityImportResult created(long index, Capacity capacity, Long id) {
+        return new CapacityImportResult(index + 1, capacity.name(), id, null);
+    }
+
+    public static CapacityImportResult rejected(long index, Capacity capacity, TechnicalMessage error) {
+        return new CapacityImportResult(index + 1, capacity.name(), null, error);
+    }
+
+    public boolean isCreated() {
+        return error == null;
+    }
+}
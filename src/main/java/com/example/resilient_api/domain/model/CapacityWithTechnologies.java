@@ -6,7 +6,11 @@ public record CapacityWithTechnologies(
         Long id,
         String name,
         String description,
-        List<TechnologySummary> technologies
+        List<TechnologySummary> technologies,
+        boolean partial
 ) {
-}
 
+    public CapacityWithTechnologies(Long id, String name, String description, List<TechnologySummary> technologies) {
+        this(id, name, description, technologies, false);
+    }
+}
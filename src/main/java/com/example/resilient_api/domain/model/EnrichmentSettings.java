@@ -0,0 +1,26 @@
+package com.example.resilient_api.domain.model;
+
+import java.time.Duration;
+
+public record EnrichmentSettings(int concurrency, int batchSize, Duration timeout) {
+
+    public static final int DEFAULT_CONCURRENCY = 4;
+    public static final int DEFAULT_BATCH_SIZE = 10;
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(2);
+
+    public EnrichmentSettings {
+        if (concurrency < 1) {
+            concurrency = DEFAULT_CONCURRENCY;
+        }
+        if (batchSize < 1) {
+            batchSize = DEFAULT_BATCH_SIZE;
+        }
+        if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+            timeout = DEFAULT_TIMEOUT;
+        }
+    }
+
+    public static EnrichmentSettings defaults() {
+        return new EnrichmentSettings(DEFAULT_CONCURRENCY, DEFAULT_BATCH_SIZE, DEFAULT_TIMEOUT);
+    }
+}
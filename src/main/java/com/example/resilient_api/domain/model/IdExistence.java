@@ -0,0 +1,173 @@
+package com.example.resilient_api.domain.model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Resultado de una verificación de existencia por id: ids ordenados sin repetir y un bit por id presente.
+ * Evita materializar mapas con claves y valores boxeados.
+ */
+public final class IdExistence {
+
+    private static final IdExistence EMPTY = new IdExistence(new long[0], new BitSet());
+
+    private final long[] ids;
+    private final BitSet present;
+
+    private IdExistence(long[] ids, BitSet present) {
+        this.ids = ids;
+        this.present = present;
+    }
+
+    public static IdExistence empty() {
+        return EMPTY;
+    }
+
+    public static Builder builder() {
+        return new Builder(16);
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    /**
+     * Builder con todos los ids solicitados marcados como ausentes; luego se marcan los encontrados.
+     */
+    public static Builder requested(List<Long> requestedIds) {
+        Builder builder = new Builder(requestedIds.size());
+        requestedIds.forEach(id -> builder.add(id, false));
+        return builder;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public int presentCount() {
+        return present.cardinality();
+    }
+
+    public long idAt(int index) {
+        return ids[index];
+    }
+
+    public boolean presentAt(int index) {
+        return present.get(index);
+    }
+
+    public boolean isPresent(long id) {
+        int index = Arrays.binarySearch(ids, id);
+        return index >= 0 && present.get(index);
+    }
+
+    public long[] missingIds() {
+        long[] missing = new long[ids.length - present.cardinality()];
+        int next = 0;
+        for (int i = present.nextClearBit(0); i < ids.length; i = present.nextClearBit(i + 1)) {
+            missing[next++] = ids[i];
+        }
+        return missing;
+    }
+
+    /**
+     * Bit i encendido si el i-ésimo id (en orden ascendente) existe; formato little-endian de BitSet.
+     */
+    public byte[] presenceBitmap() {
+        return present.toByteArray();
+    }
+
+    public boolean allPresent() {
+        return present.cardinality() == ids.length;
+    }
+
+    /**
+     * true solo si cada id solicitado fue verificado y existe; un id sin respuesta cuenta como ausente.
+     */
+    public boolean allPresent(List<Long> requestedIds) {
+        for (Long id : requestedIds) {
+            if (id == null || !isPresent(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public IdExistence merge(IdExistence other) {
+        if (other.ids.length == 0) {
+            return this;
+        }
+        if (ids.length == 0) {
+            return other;
+        }
+        Builder builder = new Builder(ids.length + other.ids.length);
+        builder.addAll(this);
+        builder.addAll(other);
+        return builder.build();
+    }
+
+    public static final class Builder {
+
+        private long[] ids;
+        private final BitSet present = new BitSet();
+        private int size;
+        private boolean sorted = true;
+
+        private Builder(int expectedSize) {
+            this.ids = new long[Math.max(expectedSize, 1)];
+        }
+
+        /**
+         * Agrega un id; si aparece repetido, basta con que una de las entradas esté presente.
+         */
+        public Builder add(long id, boolean isPresent) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            if (size > 0 && ids[size - 1] >= id) {
+                sorted = false;
+            }
+            if (isPresent) {
+                present.set(size);
+            }
+            ids[size++] = id;
+            return this;
+        }
+
+        public Builder markPresent(long id) {
+            return add(id, true);
+        }
+
+        private void addAll(IdExistence existence) {
+            for (int i = 0; i < existence.ids.length; i++) {
+                add(existence.ids[i], existence.present.get(i));
+            }
+        }
+
+        public IdExistence build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            if (sorted) {
+                return new IdExistence(Arrays.copyOf(ids, size), (BitSet) present.clone());
+            }
+
+            long[] unique = Arrays.copyOf(ids, size);
+            Arrays.sort(unique);
+            int distinct = 1;
+            for (int i = 1; i < unique.length; i++) {
+                if (unique[i] != unique[distinct - 1]) {
+                    unique[distinct++] = unique[i];
+                }
+            }
+            unique = Arrays.copyOf(unique, distinct);
+
+            BitSet uniquePresent = new BitSet(distinct);
+            for (int i = present.nextSetBit(0); i >= 0; i = present.nextSetBit(i + 1)) {
+                uniquePresent.set(Arrays.binarySearch(unique, ids[i]));
+            }
+            return new IdExistence(unique, uniquePresent);
+        }
+    }
+}
@@ -7,20 +7,44 @@ public record Page<T>(
         int page,
         int size,
         long totalElements,
+        boolean totalExact,
         int totalPages,
         boolean first,
-        boolean last
+        boolean last,
+        String nextCursor
 ) {
     public static <T> Page<T> of(List<T> content, int page, int size, long totalElements) {
-        int totalPages = (int) Math.ceil((double) totalElements / size);
+        return of(content, page, size, TotalCount.exact(totalElements), null);
+    }
+
+    public static <T> Page<T> of(List<T> content, int page, int size, TotalCount total, String nextCursor) {
+        int totalPages = (int) Math.ceil((double) total.value() / size);
         return new Page<>(
                 content,
                 page,
                 size,
-                totalElements,
+                total.value(),
+                total.exact(),
                 totalPages,
                 page == 0,
-                page >= totalPages - 1
+                page >= totalPages - 1,
+                nextCursor
+        );
+    }
+
+    // En modo cursor no hay número de página real: la última página es la que no trae cursor siguiente
+    public static <T> Page<T> ofKeyset(List<T> content, int page, int size, TotalCount total, String nextCursor) {
+        int totalPages = (int) Math.ceil((double) total.value() / size);
+        return new Page<>(
+                content,
+                page,
+                size,
+                total.value(),
+                total.exact(),
+                totalPages,
+                false,
+                nextCursor == null,
+                nextCursor
         );
     }
 }
@@ -0,0 +1,47 @@
+package com.example.resilient_api.domain.model;
+
+import com.example.resilient_api.domain.enums.TechnicalMessage;
+import com.example.resilient_api.domain.exceptions.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public record PageCursor(
+        PaginationRequest.SortField sortBy,
+        PaginationRequest.SortDirection sortDirection,
+        long technologyCount,
+        long id,
+        String name
+) {
+    private static final String SEPARATOR = "|";
+
+    public boolean matches(PaginationRequest.SortField sortBy, PaginationRequest.SortDirection sortDirection) {
+        return this.sortBy == sortBy && this.sortDirection == sortDirection;
+    }
+
+    public String encode() {
+        // El nombre va al final porque puede contener el separador
+        String raw = String.join(SEPARATOR, sortBy.name(), sortDirection.name(),
+                Long.toString(technologyCount), Long.toString(id), name);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 5);
+            if (parts.length != 5) {
+                throw new BusinessException(TechnicalMessage.INVALID_CURSOR);
+            }
+            return new PageCursor(
+                    PaginationRequest.SortField.valueOf(parts[0]),
+                    PaginationRequest.SortDirection.valueOf(parts[1]),
+                    Long.parseLong(parts[2]),
+                    Long.parseLong(parts[3]),
+                    parts[4]
+            );
+        } catch (IllegalArgumentException ex) {
+            throw new BusinessException(TechnicalMessage.INVALID_CURSOR);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.resilient_api.domain.model;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// La metadata se calcula a partir del contenido emitido: debe suscribirse cuando el contenido termina
+public record PageStream<T>(Flux<T> content, Mono<Page<T>> metadata) {
+}
@@ -4,7 +4,9 @@ public record PaginationRequest(
         int page,
         int size,
         SortField sortBy,
-        SortDirection sortDirection
+        SortDirection sortDirection,
+        PageCursor cursor,
+        CountMode countMode
 ) {
     public static final int DEFAULT_PAGE = 0;
     public static final int DEFAULT_SIZE = 10;
@@ -28,6 +30,14 @@ public record PaginationRequest(
         }
     }
 
+    public PaginationRequest(int page, int size, SortField sortBy, SortDirection sortDirection) {
+        this(page, size, sortBy, sortDirection, null, null);
+    }
+
+    public boolean isKeyset() {
+        return cursor != null;
+    }
+
     public long getOffset() {
         return (long) page * size;
     }
@@ -41,5 +51,11 @@ public record PaginationRequest(
         ASC,
         DESC
     }
+
+    public enum CountMode {
+        EXACT,
+        CACHED,
+        ESTIMATED
+    }
 }
 
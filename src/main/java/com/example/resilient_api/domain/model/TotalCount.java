@@ -0,0 +1,12 @@
+package com.example.resilient_api.domain.model;
+
+public record TotalCount(long value, boolean exact) {
+
+    public static TotalCount exact(long value) {
+        return new TotalCount(value, true);
+    }
+
+    public static TotalCount estimated(long value) {
+        return new TotalCount(value, false);
+    }
+}
@@ -2,6 +2,7 @@ package com.example.resilient_api.domain.spi;
 
 import com.example.resilient_api.domain.model.Capacity;
 import com.example.resilient_api.domain.model.PaginationRequest;
+import com.example.resilient_api.domain.model.TotalCount;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -9,10 +10,11 @@ import java.util.List;
 
 public interface CapacityPersistencePort {
     Mono<Capacity> save(Capacity capacity);
+    Flux<Capacity> saveAll(List<Capacity> capacities);
     Mono<Boolean> existByName(String name);
+    Flux<String> findExistingNames(List<String> names);
     Flux<Long> findExistingIdsByIds(List<Long> ids);
     Flux<Capacity> findAllPaginated(PaginationRequest paginationRequest);
-    Mono<Long> count();
-    Flux<Long> findTechnologyIdsByCapacityId(Long capacityId);
+    Mono<TotalCount> count(PaginationRequest.CountMode countMode);
 }
 
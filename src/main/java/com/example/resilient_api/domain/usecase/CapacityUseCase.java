@@ -2,19 +2,35 @@ package com.example.resilient_api.domain.usecase;
 
 import com.example.resilient_api.domain.enums.TechnicalMessage;
 import com.example.resilient_api.domain.exceptions.BusinessException;
+import com.example.resilient_api.domain.exceptions.ProcessorException;
 import com.example.resilient_api.domain.model.Capacity;
+import com.example.resilient_api.domain.model.CapacityImportResult;
 import com.example.resilient_api.domain.model.CapacityWithTechnologies;
+import com.example.resilient_api.domain.model.EnrichmentSettings;
+import com.example.resilient_api.domain.model.IdExistence;
 import com.example.resilient_api.domain.model.Page;
+import com.example.resilient_api.domain.model.PageCursor;
+import com.example.resilient_api.domain.model.PageStream;
 import com.example.resilient_api.domain.model.PaginationRequest;
 import com.example.resilient_api.domain.model.TechnologySummary;
+import com.example.resilient_api.domain.model.TotalCount;
 import com.example.resilient_api.domain.api.CapacityServicePort;
 import com.example.resilient_api.domain.spi.CapacityPersistencePort;
 import com.example.resilient_api.domain.spi.TechnologyExternalServicePort;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 public class CapacityUseCase implements CapacityServicePort {
@@ -23,153 +39,380 @@ public class CapacityUseCase implements CapacityServicePort {
     private static final int MAX_DESCRIPTION_LENGTH = 90;
     private static final int MIN_TECHNOLOGIES = 3;
     private static final int MAX_TECHNOLOGIES = 20;
+    private static final int IMPORT_CHUNK_SIZE = 100;
 
     private final CapacityPersistencePort capacityPersistencePort;
     private final TechnologyExternalServicePort technologyExternalServicePort;
+    private final EnrichmentSettings enrichmentSettings;
+    private final AtomicInteger inFlightEnrichments = new AtomicInteger();
+    private final AtomicLong degradedEnrichments = new AtomicLong();
 
     public CapacityUseCase(CapacityPersistencePort capacityPersistencePort,
                            TechnologyExternalServicePort technologyExternalServicePort) {
+        this(capacityPersistencePort, technologyExternalServicePort, EnrichmentSettings.defaults());
+    }
+
+    public CapacityUseCase(CapacityPersistencePort capacityPersistencePort,
+                           TechnologyExternalServicePort technologyExternalServicePort,
+                           EnrichmentSettings enrichmentSettings) {
         this.capacityPersistencePort = capacityPersistencePort;
         this.technologyExternalServicePort = technologyExternalServicePort;
+        this.enrichmentSettings = enrichmentSettings;
+    }
+
+    public EnrichmentSettings enrichmentSettings() {
+        return enrichmentSettings;
+    }
+
+    public int inFlightEnrichments() {
+        return inFlightEnrichments.get();
+    }
+
+    public long degradedEnrichments() {
+        return degradedEnrichments.get();
     }
 
     @Override
     public Mono<Capacity> registerCapacity(Capacity capacity, String messageId) {
+        // Sin consulta previa del nombre: el INSERT ... ON CONFLICT DO NOTHING devuelve vacío si ya existe
         return validateCapacity(capacity)
                 .then(validateTechnologies(capacity.technologyIds()))
-                .then(checkTechnologiesExistInExternalService(capacity.technologyIds(), messageId))
-                .then(capacityPersistencePort.existByName(capacity.name()))
-                .filter(exists -> !exists)
-                .switchIfEmpty(Mono.error(new BusinessException(TechnicalMessage.TECHNOLOGY_ALREADY_EXISTS)))
-                .flatMap(exists -> capacityPersistencePort.save(capacity));
+                .then(Mono.defer(() -> checkTechnologiesExistInExternalService(capacity.technologyIds(), messageId)))
+                .then(Mono.defer(() -> capacityPersistencePort.save(capacity)))
+                .switchIfEmpty(Mono.error(new BusinessException(TechnicalMessage.TECHNOLOGY_ALREADY_EXISTS)));
     }
 
     @Override
-    public Mono<Map<Long, Boolean>> checkCapacitiesExist(List<Long> ids, String messageId) {
+    public Flux<CapacityImportResult> importCapacities(Flux<Capacity> capacities, String messageId) {
+        // Lotes acotados: la demanda hacia el body depende de que se procese cada lote
+        return capacities
+                .index()
+                .buffer(IMPORT_CHUNK_SIZE)
+                .concatMap(chunk -> importChunk(chunk, messageId));
+    }
+
+    private Flux<CapacityImportResult> importChunk(List<Tuple2<Long, Capacity>> chunk, String messageId) {
+        Map<Long, TechnicalMessage> rejected = new HashMap<>();
+        Map<Long, Capacity> candidates = new LinkedHashMap<>();
+        Set<String> chunkNames = new HashSet<>();
+
+        // Reglas locales, las mismas de registerCapacity
+        for (Tuple2<Long, Capacity> row : chunk) {
+            Capacity capacity = row.getT2();
+            TechnicalMessage violation = findCapacityViolation(capacity);
+            if (violation == null) {
+                violation = findTechnologiesViolation(capacity.technologyIds());
+            }
+            if (violation == null && !chunkNames.add(capacity.name())) {
+                violation = TechnicalMessage.TECHNOLOGY_ALREADY_EXISTS;
+            }
+            if (violation != null) {
+                rejected.put(row.getT1(), violation);
+            } else {
+                candidates.put(row.getT1(), capacity);
+            }
+        }
+
+        if (candidates.isEmpty()) {
+            return Flux.fromIterable(chunk)
+                    .map(row -> CapacityImportResult.rejected(row.getT1(), row.getT2(), rejected.get(row.getT1())));
+        }
+
+        List<String> names = candidates.values().stream().map(Capacity::name).toList();
+        List<Long> technologyIds = candidates.values().stream()
+                .flatMap(capacity -> capacity.technologyIds().stream())
+                .distinct()
+                .toList();
+
+        // Una consulta de nombres y una verificación de tecnologías por lote
+        return Mono.zip(
+                        capacityPersistencePort.findExistingNames(names).collect(Collectors.toSet()),
+                        technologyExternalServicePort.checkTechnologiesExist(technologyIds, messageId))
+                .flatMap(tuple -> {
+                    Set<String> existingNames = tuple.getT1();
+                    IdExistence technologyExistence = tuple.getT2();
+
+                    List<Capacity> toSave = new ArrayList<>();
+                    candidates.forEach((line, capacity) -> {
+                        if (existingNames.contains(capacity.name())) {
+                            rejected.put(line, TechnicalMessage.TECHNOLOGY_ALREADY_EXISTS);
+                        } else if (!technologyExistence.allPresent(capacity.technologyIds())) {
+                            rejected.put(line, TechnicalMessage.TECHNOLOGIES_NOT_FOUND);
+                        } else {
+                            toSave.add(capacity);
+                        }
+                    });
+
+                    return capacityPersistencePort.saveAll(toSave)
+                            .collectMap(Capacity::name, Capacity::id);
+                })
+                .onErrorResume(ProcessorException.class, ex -> {
+                    candidates.keySet().forEach(line -> rejected.putIfAbsent(line, ex.getTechnicalMessage()));
+                    return Mono.just(Map.<String, Long>of());
+                })
+                .flatMapMany(savedIds -> Flux.fromIterable(chunk)
+                        .map(row -> {
+                            Long savedId = rejected.containsKey(row.getT1()) ? null : savedIds.get(row.getT2().name());
+                            return savedId != null
+                                    ? CapacityImportResult.created(row.getT1(), row.getT2(), savedId)
+                                    : CapacityImportResult.rejected(row.getT1(), row.getT2(),
+                                            rejected.getOrDefault(row.getT1(), TechnicalMessage.TECHNOLOGY_ALREADY_EXISTS));
+                        }));
+    }
+
+    @Override
+    public Mono<IdExistence> checkCapacitiesExist(List<Long> ids, String messageId) {
         if (ids == null || ids.isEmpty()) {
-            return Mono.just(Map.of());
+            return Mono.just(IdExistence.empty());
+        }
+        // Un id nulo es un error del cliente, no un id ausente
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            return Mono.error(new BusinessException(TechnicalMessage.INVALID_PARAMETERS));
         }
 
+        // Todos los ids solicitados parten como ausentes y se marcan los que devuelve la base
         return capacityPersistencePort.findExistingIdsByIds(ids)
-                .collect(Collectors.toSet())
-                .map(existingIds -> ids.stream()
-                        .collect(Collectors.toMap(
-                                id -> id,
-                                existingIds::contains
-                        ))
-                );
+                .collect(() -> IdExistence.requested(ids), IdExistence.Builder::markPresent)
+                .map(IdExistence.Builder::build);
     }
 
     @Override
     public Mono<Page<CapacityWithTechnologies>> listCapacities(PaginationRequest paginationRequest, String messageId) {
+        if (hasMismatchedCursor(paginationRequest)) {
+            return Mono.error(new BusinessException(TechnicalMessage.INVALID_CURSOR));
+        }
+
         // Obtener el conteo total y las capacidades en paralelo
-        Mono<Long> totalCount = capacityPersistencePort.count();
-        Mono<List<Capacity>> capacities = capacityPersistencePort
-                .findAllPaginated(paginationRequest)
-                .collectList();
+        Mono<TotalCount> totalCount = capacityPersistencePort.count(paginationRequest.countMode());
 
-        return Mono.zip(totalCount, capacities)
+        return Mono.zip(totalCount, findCapacityBatch(paginationRequest))
                 .flatMap(tuple -> {
-                    Long total = tuple.getT1();
-                    List<Capacity> capacityList = tuple.getT2();
-
-                    if (capacityList.isEmpty()) {
-                        return Mono.just(Page.of(List.of(), paginationRequest.page(), paginationRequest.size(), total));
-                    }
+                    TotalCount total = tuple.getT1();
+                    CapacityBatch batch = tuple.getT2();
 
-                    // Enriquecer cada capacidad con sus tecnologías
-                    return enrichCapacitiesWithTechnologies(capacityList, messageId)
+                    // Enriquecer las capacidades de la página con sus tecnologías
+                    return enrichCapacitiesWithTechnologies(batch.capacities(), messageId)
                             .collectList()
-                            .map(enrichedCapacities -> Page.of(
+                            .map(enrichedCapacities -> buildPage(
+                                    paginationRequest,
                                     enrichedCapacities,
-                                    paginationRequest.page(),
-                                    paginationRequest.size(),
-                                    total
+                                    total,
+                                    batch.nextCursor()
                             ));
                 });
     }
 
-    private reactor.core.publisher.Flux<CapacityWithTechnologies> enrichCapacitiesWithTechnologies(
-            List<Capacity> capacities, String messageId) {
+    @Override
+    public PageStream<CapacityWithTechnologies> streamCapacities(PaginationRequest paginationRequest, String messageId) {
+        if (hasMismatchedCursor(paginationRequest)) {
+            throw new BusinessException(TechnicalMessage.INVALID_CURSOR);
+        }
 
-        return reactor.core.publisher.Flux.fromIterable(capacities)
-                .concatMap(capacity ->
-                    capacityPersistencePort.findTechnologyIdsByCapacityId(capacity.id())
-                            .collectList()
-                            .flatMap(techIds -> {
-                                if (techIds.isEmpty()) {
-                                    return Mono.just(new CapacityWithTechnologies(
-                                            capacity.id(),
-                                            capacity.name(),
-                                            capacity.description(),
-                                            List.of()
-                                    ));
-                                }
-
-                                // Consultar las tecnologías al servicio externo
-                                return technologyExternalServicePort.getTechnologiesByIds(techIds, messageId)
-                                        .collectList()
-                                        .map(technologies -> new CapacityWithTechnologies(
-                                                capacity.id(),
-                                                capacity.name(),
-                                                capacity.description(),
-                                                technologies
-                                        ));
-                            })
-                );
+        StreamProgress progress = new StreamProgress();
+        Flux<CapacityWithTechnologies> content = Mono.zip(
+                        capacityPersistencePort.count(paginationRequest.countMode()),
+                        findCapacityBatch(paginationRequest))
+                .flatMapMany(tuple -> {
+                    progress.total = tuple.getT1();
+                    progress.nextCursor = tuple.getT2().nextCursor();
+                    return streamCapacityBatch(tuple.getT2(), messageId);
+                });
+
+        return new PageStream<>(content, Mono.fromSupplier(() ->
+                buildPage(paginationRequest, List.of(), progress.total, progress.nextCursor)));
+    }
+
+    @Override
+    public PageStream<CapacityWithTechnologies> exportCapacities(PaginationRequest.SortField sortBy,
+                                                                 PaginationRequest.SortDirection sortDirection,
+                                                                 String messageId) {
+        AtomicLong emitted = new AtomicLong();
+
+        // Recorre el catálogo por cursor, una página a la vez, para mantener la memoria constante
+        Flux<CapacityWithTechnologies> content = findCapacityBatch(
+                        new PaginationRequest(0, PaginationRequest.MAX_SIZE, sortBy, sortDirection))
+                .expand(batch -> batch.nextCursor() == null
+                        ? Mono.empty()
+                        : findCapacityBatch(new PaginationRequest(0, PaginationRequest.MAX_SIZE, sortBy, sortDirection,
+                                batch.nextCursor(), null)))
+                .concatMap(batch -> streamCapacityBatch(batch, messageId), 1)
+                .doOnNext(capacity -> emitted.incrementAndGet());
+
+        return new PageStream<>(content, Mono.fromSupplier(() -> {
+            long total = emitted.get();
+            return new Page<>(List.of(), 0, (int) Math.min(total, Integer.MAX_VALUE), total, true, 1, true, true, null);
+        }));
+    }
+
+    private boolean hasMismatchedCursor(PaginationRequest paginationRequest) {
+        PageCursor cursor = paginationRequest.cursor();
+        return cursor != null && !cursor.matches(paginationRequest.sortBy(), paginationRequest.sortDirection());
+    }
+
+    private Mono<CapacityBatch> findCapacityBatch(PaginationRequest paginationRequest) {
+        // Las capacidades llegan con sus ids de tecnologías; no hace falta consultar capacity_technology
+        return capacityPersistencePort.findAllPaginated(paginationRequest)
+                .collectList()
+                .map(capacities -> new CapacityBatch(capacities, nextCursor(paginationRequest, capacities)));
+    }
+
+    private Flux<CapacityWithTechnologies> streamCapacityBatch(CapacityBatch batch, String messageId) {
+        return enrichCapacitiesWithTechnologies(batch.capacities(), messageId);
+    }
+
+    private Page<CapacityWithTechnologies> buildPage(PaginationRequest paginationRequest,
+                                                     List<CapacityWithTechnologies> content,
+                                                     TotalCount total, PageCursor nextCursor) {
+        String encodedCursor = nextCursor != null ? nextCursor.encode() : null;
+        if (paginationRequest.isKeyset()) {
+            return Page.ofKeyset(content, paginationRequest.page(), paginationRequest.size(), total, encodedCursor);
+        }
+        return Page.of(content, paginationRequest.page(), paginationRequest.size(), total, encodedCursor);
+    }
+
+    private PageCursor nextCursor(PaginationRequest paginationRequest, List<Capacity> capacities) {
+        if (capacities.isEmpty() || capacities.size() < paginationRequest.size()) {
+            return null;
+        }
+        Capacity last = capacities.get(capacities.size() - 1);
+        return new PageCursor(
+                paginationRequest.sortBy(),
+                paginationRequest.sortDirection(),
+                technologyIdsOf(last).size(),
+                last.id(),
+                last.name()
+        );
+    }
+
+    private Flux<CapacityWithTechnologies> enrichCapacitiesWithTechnologies(List<Capacity> capacities,
+                                                                            String messageId) {
+
+        // Lotes enriquecidos en paralelo hasta el límite configurado, conservando el orden de la página
+        return Flux.fromIterable(capacities)
+                .buffer(enrichmentSettings.batchSize())
+                .flatMapSequential(batch -> enrichBatch(batch, messageId),
+                        enrichmentSettings.concurrency());
+    }
+
+    private Flux<CapacityWithTechnologies> enrichBatch(List<Capacity> capacities, String messageId) {
+        List<Long> distinctTechIds = capacities.stream()
+                .flatMap(capacity -> technologyIdsOf(capacity).stream())
+                .distinct()
+                .toList();
+
+        // Una sola llamada al servicio externo con las tecnologías de todas las capacidades del lote
+        return findTechnologiesById(distinctTechIds, messageId)
+                .timeout(enrichmentSettings.timeout())
+                .doOnSubscribe(subscription -> inFlightEnrichments.incrementAndGet())
+                .doFinally(signal -> inFlightEnrichments.decrementAndGet())
+                .map(technologiesById -> capacities.stream()
+                        .map(capacity -> new CapacityWithTechnologies(
+                                capacity.id(),
+                                capacity.name(),
+                                capacity.description(),
+                                technologyIdsOf(capacity).stream()
+                                        .map(technologiesById::get)
+                                        .filter(Objects::nonNull)
+                                        .toList()
+                        ))
+                        .toList())
+                // Si falla la consulta de tecnologías, las capacidades se devuelven marcadas como parciales
+                .onErrorResume(ex -> {
+                    degradedEnrichments.addAndGet(capacities.size());
+                    return Mono.just(capacities.stream()
+                            .map(capacity -> new CapacityWithTechnologies(
+                                    capacity.id(),
+                                    capacity.name(),
+                                    capacity.description(),
+                                    List.of(),
+                                    true
+                            ))
+                            .toList());
+                })
+                .flatMapIterable(enriched -> enriched);
+    }
+
+    private Mono<Map<Long, TechnologySummary>> findTechnologiesById(List<Long> technologyIds, String messageId) {
+        if (technologyIds.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+
+        return technologyExternalServicePort.getTechnologiesByIds(technologyIds, messageId)
+                .collectMap(TechnologySummary::id);
     }
 
     private Mono<Void> validateCapacity(Capacity capacity) {
+        return toValidationResult(findCapacityViolation(capacity));
+    }
+
+    private Mono<Void> validateTechnologies(List<Long> technologyIds) {
+        return toValidationResult(findTechnologiesViolation(technologyIds));
+    }
+
+    private Mono<Void> toValidationResult(TechnicalMessage violation) {
+        return violation == null ? Mono.empty() : Mono.error(new BusinessException(violation));
+    }
+
+    private TechnicalMessage findCapacityViolation(Capacity capacity) {
         if (capacity.name() == null || capacity.name().trim().isEmpty()) {
-            return Mono.error(new BusinessException(TechnicalMessage.TECHNOLOGY_NAME_REQUIRED));
+            return TechnicalMessage.TECHNOLOGY_NAME_REQUIRED;
         }
         if (capacity.description() == null || capacity.description().trim().isEmpty()) {
-            return Mono.error(new BusinessException(TechnicalMessage.TECHNOLOGY_DESCRIPTION_REQUIRED));
+            return TechnicalMessage.TECHNOLOGY_DESCRIPTION_REQUIRED;
         }
         if (capacity.name().length() > MAX_NAME_LENGTH) {
-            return Mono.error(new BusinessException(TechnicalMessage.TECHNOLOGY_NAME_TOO_LONG));
+            return TechnicalMessage.TECHNOLOGY_NAME_TOO_LONG;
         }
         if (capacity.description().length() > MAX_DESCRIPTION_LENGTH) {
-            return Mono.error(new BusinessException(TechnicalMessage.TECHNOLOGY_DESCRIPTION_TOO_LONG));
+            return TechnicalMessage.TECHNOLOGY_DESCRIPTION_TOO_LONG;
         }
-        return Mono.empty();
+        return null;
     }
 
-    private Mono<Void> validateTechnologies(List<Long> technologyIds) {
+    private TechnicalMessage findTechnologiesViolation(List<Long> technologyIds) {
         // Validar que se proporcionen tecnologías
         if (technologyIds == null || technologyIds.isEmpty()) {
-            return Mono.error(new BusinessException(TechnicalMessage.CAPACITY_TECHNOLOGIES_REQUIRED));
+            return TechnicalMessage.CAPACITY_TECHNOLOGIES_REQUIRED;
         }
 
         // Validar mínimo de tecnologías
         if (technologyIds.size() < MIN_TECHNOLOGIES) {
-            return Mono.error(new BusinessException(TechnicalMessage.CAPACITY_TECHNOLOGIES_MIN));
+            return TechnicalMessage.CAPACITY_TECHNOLOGIES_MIN;
         }
 
         // Validar máximo de tecnologías
         if (technologyIds.size() > MAX_TECHNOLOGIES) {
-            return Mono.error(new BusinessException(TechnicalMessage.CAPACITY_TECHNOLOGIES_MAX));
+            return TechnicalMessage.CAPACITY_TECHNOLOGIES_MAX;
         }
 
         // Validar que no haya tecnologías duplicadas
         if (technologyIds.size() != new HashSet<>(technologyIds).size()) {
-            return Mono.error(new BusinessException(TechnicalMessage.CAPACITY_TECHNOLOGIES_DUPLICATED));
+            return TechnicalMessage.CAPACITY_TECHNOLOGIES_DUPLICATED;
         }
 
-        return Mono.empty();
+        return null;
     }
 
     private Mono<Void> checkTechnologiesExistInExternalService(List<Long> technologyIds, String messageId) {
         return technologyExternalServicePort.checkTechnologiesExist(technologyIds, messageId)
-                .flatMap(existenceMap -> {
+                .flatMap(existence -> {
                     // Verificar que todas las tecnologías existan
-                    boolean allExist = existenceMap.values().stream().allMatch(exists -> exists);
-                    if (!allExist) {
+                    if (!existence.allPresent(technologyIds)) {
                         return Mono.error(new BusinessException(TechnicalMessage.TECHNOLOGIES_NOT_FOUND));
                     }
                     return Mono.empty();
                 });
     }
-}
 
+    private static List<Long> technologyIdsOf(Capacity capacity) {
+        return capacity.technologyIds() != null ? capacity.technologyIds() : List.of();
+    }
 
+    private record CapacityBatch(List<Capacity> capacities, PageCursor nextCursor) {
+    }
+
+    private static final class StreamProgress {
+        private volatile TotalCount total = TotalCount.exact(0);
+        private volatile PageCursor nextCursor;
+    }
+}
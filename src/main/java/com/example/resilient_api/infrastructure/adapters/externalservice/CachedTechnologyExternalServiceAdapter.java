@@ -0,0 +1,123 @@
+package com.example.resilient_api.infrastructure.adapters.externalservice;
+
+import com.example.resilient_api.domain.exceptions.TechnicalException;
+import com.example.resilient_api.domain.model.IdExistence;
+import com.example.resilient_api.domain.model.TechnologySummary;
+import com.example.resilient_api.domain.spi.TechnologyExternalServicePort;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+public class CachedTechnologyExternalServiceAdapter implements TechnologyExternalServicePort {
+
+    private static final String CACHE_NAME = "technology-summaries";
+
+    private static final String LAST_KNOWN_CACHE_NAME = "technology-summaries-last-known";
+
+    private final TechnologyExternalServicePort delegate;
+    private final AsyncLoadingCache<Long, TechnologySummary> cache;
+    // Última versión conocida de cada tecnología, sin expiración, para cuando el servicio no responde
+    private final Cache<Long, TechnologySummary> lastKnown;
+
+    public CachedTechnologyExternalServiceAdapter(TechnologyExternalServicePort delegate,
+                                                  long maximumSize,
+                                                  Duration expireAfterWrite,
+                                                  Duration refreshAfterWrite,
+                                                  long lastKnownMaximumSize,
+                                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .refreshAfterWrite(refreshAfterWrite)
+                .recordStats()
+                .buildAsync(new TechnologySummaryLoader());
+        this.lastKnown = Caffeine.newBuilder()
+                .maximumSize(lastKnownMaximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), CACHE_NAME);
+        CaffeineCacheMetrics.monitor(meterRegistry, lastKnown, LAST_KNOWN_CACHE_NAME);
+    }
+
+    @Override
+    public Mono<IdExistence> checkTechnologiesExist(List<Long> technologyIds, String messageId) {
+        Map<Long, TechnologySummary> cached = cache.synchronous().getAllPresent(technologyIds);
+        List<Long> missingIds = technologyIds.stream()
+                .filter(id -> !cached.containsKey(id))
+                .distinct()
+                .toList();
+
+        IdExistence.Builder existence = IdExistence.builder(cached.size());
+        cached.keySet().forEach(existence::markPresent);
+        if (missingIds.isEmpty()) {
+            return Mono.just(existence.build());
+        }
+
+        // Solo se consulta al servicio externo por las tecnologías que no están en caché
+        IdExistence fromCache = existence.build();
+        return delegate.checkTechnologiesExist(missingIds, messageId)
+                .map(fromCache::merge);
+    }
+
+    @Override
+    public Flux<TechnologySummary> getTechnologiesByIds(List<Long> technologyIds, String messageId) {
+        return Mono.fromFuture(() -> cache.getAll(technologyIds, (missingIds, executor) ->
+                        loadAll(List.copyOf(missingIds), messageId)))
+                .onErrorResume(TechnicalException.class, ex -> lastKnownOrError(technologyIds, ex))
+                .flatMapIterable(found -> technologyIds.stream()
+                        .map(found::get)
+                        .filter(Objects::nonNull)
+                        .toList());
+    }
+
+    private Mono<Map<Long, TechnologySummary>> lastKnownOrError(List<Long> technologyIds, TechnicalException ex) {
+        // Solo se responde desde el respaldo si están todas las tecnologías; si no, el llamador decide
+        Map<Long, TechnologySummary> known = lastKnown.getAllPresent(technologyIds);
+        if (known.size() < new HashSet<>(technologyIds).size()) {
+            return Mono.error(ex);
+        }
+        return Mono.just(known);
+    }
+
+    private CompletableFuture<Map<Long, TechnologySummary>> loadAll(List<Long> technologyIds, String messageId) {
+        return delegate.getTechnologiesByIds(technologyIds, messageId)
+                .collectMap(TechnologySummary::id)
+                .doOnNext(lastKnown::putAll)
+                .toFuture();
+    }
+
+    // Loader usado por Caffeine para el refresco anticipado; no pertenece a ningún request
+    private class TechnologySummaryLoader implements AsyncCacheLoader<Long, TechnologySummary> {
+
+        @Override
+        public CompletableFuture<TechnologySummary> asyncLoad(Long key, Executor executor) {
+            return loadAll(List.of(key), refreshMessageId())
+                    .thenApply(found -> found.get(key));
+        }
+
+        @Override
+        public CompletableFuture<Map<Long, TechnologySummary>> asyncLoadAll(Set<? extends Long> keys, Executor executor) {
+            return loadAll(List.copyOf(keys), refreshMessageId());
+        }
+
+        private String refreshMessageId() {
+            return "cache-refresh-" + UUID.randomUUID();
+        }
+    }
+}
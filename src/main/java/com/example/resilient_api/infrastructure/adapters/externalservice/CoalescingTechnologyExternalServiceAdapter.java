@@ -0,0 +1,125 @@
+package com.example.resilient_api.infrastructure.adapters.externalservice;
+
+import com.example.resilient_api.domain.model.IdExistence;
+import com.example.resilient_api.domain.model.TechnologySummary;
+import com.example.resilient_api.domain.spi.TechnologyExternalServicePort;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class CoalescingTechnologyExternalServiceAdapter implements TechnologyExternalServicePort {
+
+    private final TechnologyExternalServicePort delegate;
+    private final Duration batchWindow;
+    private final int maxBatchSize;
+
+    // Lote en vuelo al que pertenece cada id; se libera en cuanto llega la respuesta
+    private final Map<Long, Mono<Map<Long, TechnologySummary>>> inFlight = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private PendingBatch pendingBatch;
+
+    public CoalescingTechnologyExternalServiceAdapter(TechnologyExternalServicePort delegate,
+                                                      Duration batchWindow,
+                                                      int maxBatchSize) {
+        this.delegate = delegate;
+        this.batchWindow = batchWindow;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Override
+    public Mono<IdExistence> checkTechnologiesExist(List<Long> technologyIds, String messageId) {
+        return delegate.checkTechnologiesExist(technologyIds, messageId);
+    }
+
+    @Override
+    public Flux<TechnologySummary> getTechnologiesByIds(List<Long> technologyIds, String messageId) {
+        return Flux.defer(() -> Flux.merge(join(technologyIds, messageId))
+                .collect(HashMap<Long, TechnologySummary>::new, Map::putAll)
+                .flatMapIterable(found -> technologyIds.stream()
+                        .map(found::get)
+                        .filter(Objects::nonNull)
+                        .toList()));
+    }
+
+    private List<Mono<Map<Long, TechnologySummary>>> join(List<Long> technologyIds, String messageId) {
+        Set<Mono<Map<Long, TechnologySummary>>> lookups = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<PendingBatch> fullBatches = new ArrayList<>();
+
+        synchronized (lock) {
+            for (Long technologyId : new LinkedHashSet<>(technologyIds)) {
+                Mono<Map<Long, TechnologySummary>> lookup = inFlight.get(technologyId);
+                if (lookup == null) {
+                    if (pendingBatch == null) {
+                        pendingBatch = new PendingBatch(messageId);
+                        PendingBatch scheduled = pendingBatch;
+                        Mono.delay(batchWindow).subscribe(tick -> flush(scheduled));
+                    }
+                    pendingBatch.technologyIds.add(technologyId);
+                    lookup = pendingBatch.result;
+                    inFlight.put(technologyId, lookup);
+                    if (pendingBatch.technologyIds.size() >= maxBatchSize) {
+                        fullBatches.add(pendingBatch);
+                        pendingBatch = null;
+                    }
+                }
+                lookups.add(lookup);
+            }
+        }
+
+        fullBatches.forEach(this::flush);
+        return List.copyOf(lookups);
+    }
+
+    private void flush(PendingBatch batch) {
+        synchronized (lock) {
+            if (pendingBatch == batch) {
+                pendingBatch = null;
+            }
+        }
+        if (!batch.flushed.compareAndSet(false, true)) {
+            return;
+        }
+
+        List<Long> technologyIds = List.copyOf(batch.technologyIds);
+        delegate.getTechnologiesByIds(technologyIds, batch.messageId)
+                .collectMap(TechnologySummary::id)
+                .subscribe(
+                        found -> {
+                            release(technologyIds, batch);
+                            batch.sink.tryEmitValue(found);
+                        },
+                        error -> {
+                            release(technologyIds, batch);
+                            batch.sink.tryEmitError(error);
+                        });
+    }
+
+    private void release(List<Long> technologyIds, PendingBatch batch) {
+        technologyIds.forEach(technologyId -> inFlight.remove(technologyId, batch.result));
+    }
+
+    private static final class PendingBatch {
+        private final String messageId;
+        private final Set<Long> technologyIds = new LinkedHashSet<>();
+        private final Sinks.One<Map<Long, TechnologySummary>> sink = Sinks.one();
+        private final Mono<Map<Long, TechnologySummary>> result = sink.asMono();
+        private final AtomicBoolean flushed = new AtomicBoolean();
+
+        private PendingBatch(String messageId) {
+            this.messageId = messageId;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.resilient_api.infrastructure.adapters.externalservice;
+
+import com.example.resilient_api.domain.model.IdExistence;
+import com.example.resilient_api.domain.model.TechnologySummary;
+import com.example.resilient_api.domain.spi.TechnologyExternalServicePort;
+import com.example.resilient_api.infrastructure.observability.StageObservations;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Mide las llamadas de tecnologías bajo el nombre recibido y registra cuántos ids viajan en cada una.
+ * Se usa sobre el cliente HTTP (llamada real) y sobre el puerto que ve el caso de uso (incluye caché y coalescing).
+ */
+public class ObservedTechnologyExternalServiceAdapter implements TechnologyExternalServicePort {
+
+    private static final String BY_IDS = "by_ids";
+    private static final String CHECK_EXISTS = "check_exists";
+
+    private final TechnologyExternalServicePort delegate;
+    private final StageObservations observations;
+    private final String observationName;
+    private final DistributionSummary byIdsFanOut;
+    private final DistributionSummary checkExistsFanOut;
+
+    public ObservedTechnologyExternalServiceAdapter(TechnologyExternalServicePort delegate,
+                                                    StageObservations observations,
+                                                    String observationName,
+                                                    MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.observations = observations;
+        this.observationName = observationName;
+        this.byIdsFanOut = fanOut(observationName, BY_IDS, meterRegistry);
+        this.checkExistsFanOut = fanOut(observationName, CHECK_EXISTS, meterRegistry);
+    }
+
+    @Override
+    public Mono<IdExistence> checkTechnologiesExist(List<Long> technologyIds, String messageId) {
+        checkExistsFanOut.record(technologyIds.size());
+        return observations.observe(observationName, KeyValues.of("operation", CHECK_EXISTS),
+                delegate.checkTechnologiesExist(technologyIds, messageId));
+    }
+
+    @Override
+    public Flux<TechnologySummary> getTechnologiesByIds(List<Long> technologyIds, String messageId) {
+        byIdsFanOut.record(technologyIds.size());
+        return observations.observe(observationName, KeyValues.of("operation", BY_IDS),
+                delegate.getTechnologiesByIds(technologyIds, messageId));
+    }
+
+    private static DistributionSummary fanOut(String observationName, String operation, MeterRegistry meterRegistry) {
+        return DistributionSummary.builder(observationName + ".ids")
+                .description("Technology ids requested per call")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
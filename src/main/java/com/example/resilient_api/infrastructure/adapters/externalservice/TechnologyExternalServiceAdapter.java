@@ -1,5 +1,6 @@
 package com.example.resilient_api.infrastructure.adapters.externalservice;
 
+import com.example.resilient_api.domain.model.IdExistence;
 import com.example.resilient_api.domain.model.TechnologySummary;
 import com.example.resilient_api.domain.spi.TechnologyExternalServicePort;
 import com.example.resilient_api.infrastructure.adapters.webclient.TechnologyWebClient;
@@ -8,7 +9,6 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
-import java.util.Map;
 
 @AllArgsConstructor
 public class TechnologyExternalServiceAdapter implements TechnologyExternalServicePort {
@@ -16,7 +16,7 @@ public class TechnologyExternalServiceAdapter implements TechnologyExternalServi
     private final TechnologyWebClient technologyWebClient;
 
     @Override
-    public Mono<Map<Long, Boolean>> checkTechnologiesExist(List<Long> technologyIds, String messageId) {
+    public Mono<IdExistence> checkTechnologiesExist(List<Long> technologyIds, String messageId) {
         return technologyWebClient.checkTechnologiesExist(technologyIds, messageId);
     }
 
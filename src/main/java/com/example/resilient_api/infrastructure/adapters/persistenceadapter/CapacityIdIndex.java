@@ -0,0 +1,145 @@
+package com.example.resilient_api.infrastructure.adapters.persistenceadapter;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice en memoria de los ids de capacity: un long[] ordenado e inmutable más un conjunto concurrente con las
+ * altas recientes. Las altas no copian el arreglo; se fusionan en él al reconciliar o al superar
+ * {@value #OVERLAY_MERGE_THRESHOLD} ids. Las lecturas no bloquean.
+ */
+public class CapacityIdIndex {
+
+    static final int OVERLAY_MERGE_THRESHOLD = 1024;
+
+    private final Object lock = new Object();
+    private volatile long[] ids = new long[0];
+    // Solo ids que no están en el arreglo
+    private final Set<Long> overlay = ConcurrentHashMap.newKeySet();
+    private volatile Instant loadedAt;
+    private long[] addedDuringReload;
+    private int addedDuringReloadCount;
+
+    public boolean isReady() {
+        return loadedAt != null;
+    }
+
+    public boolean contains(long id) {
+        return Arrays.binarySearch(ids, id) >= 0 || (!overlay.isEmpty() && overlay.contains(id));
+    }
+
+    public int size() {
+        return ids.length + overlay.size();
+    }
+
+    public Instant loadedAt() {
+        return loadedAt;
+    }
+
+    public void add(long id) {
+        addAll(new long[]{id});
+    }
+
+    public void addAll(long[] newIds) {
+        if (newIds.length == 0) {
+            return;
+        }
+        synchronized (lock) {
+            for (long id : newIds) {
+                if (Arrays.binarySearch(ids, id) < 0) {
+                    overlay.add(id);
+                }
+            }
+            if (addedDuringReload != null) {
+                recordDuringReload(newIds);
+            }
+            if (overlay.size() > OVERLAY_MERGE_THRESHOLD) {
+                mergeOverlay();
+            }
+        }
+    }
+
+    /**
+     * Marca el inicio de una recarga; los ids guardados mientras se lee la tabla se conservan al reemplazar.
+     */
+    public void beginReload() {
+        synchronized (lock) {
+            addedDuringReload = new long[16];
+            addedDuringReloadCount = 0;
+        }
+    }
+
+    public void completeReload(long[] loadedIds) {
+        long[] sorted = loadedIds.clone();
+        Arrays.sort(sorted);
+        synchronized (lock) {
+            long[] pending = addedDuringReload != null
+                    ? Arrays.copyOf(addedDuringReload, addedDuringReloadCount)
+                    : new long[0];
+            Arrays.sort(pending);
+            ids = merge(dedupe(sorted), pending);
+            // Lo que queda en el conjunto es anterior a la recarga: la tabla ya lo incluye o dejó de existir
+            overlay.clear();
+            addedDuringReload = null;
+            loadedAt = Instant.now();
+        }
+    }
+
+    public void abortReload() {
+        synchronized (lock) {
+            addedDuringReload = null;
+        }
+    }
+
+    private void recordDuringReload(long[] newIds) {
+        if (addedDuringReloadCount + newIds.length > addedDuringReload.length) {
+            addedDuringReload = Arrays.copyOf(addedDuringReload,
+                    Math.max(addedDuringReload.length * 2, addedDuringReloadCount + newIds.length));
+        }
+        System.arraycopy(newIds, 0, addedDuringReload, addedDuringReloadCount, newIds.length);
+        addedDuringReloadCount += newIds.length;
+    }
+
+    private void mergeOverlay() {
+        long[] pending = overlay.stream().mapToLong(Long::longValue).sorted().toArray();
+        // Primero el arreglo nuevo y después se quitan del conjunto, así ningún id deja de verse
+        ids = merge(ids, pending);
+        for (long id : pending) {
+            overlay.remove(id);
+        }
+    }
+
+    private static long[] dedupe(long[] sorted) {
+        if (sorted.length < 2) {
+            return sorted;
+        }
+        int distinct = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[distinct - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        return distinct == sorted.length ? sorted : Arrays.copyOf(sorted, distinct);
+    }
+
+    private static long[] merge(long[] current, long[] sortedAdditions) {
+        long[] merged = new long[current.length + sortedAdditions.length];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < current.length || j < sortedAdditions.length) {
+            long next;
+            if (j >= sortedAdditions.length || (i < current.length && current[i] <= sortedAdditions[j])) {
+                next = current[i++];
+            } else {
+                next = sortedAdditions[j++];
+            }
+            if (size == 0 || merged[size - 1] != next) {
+                merged[size++] = next;
+            }
+        }
+        return size == merged.length ? merged : Arrays.copyOf(merged, size);
+    }
+}
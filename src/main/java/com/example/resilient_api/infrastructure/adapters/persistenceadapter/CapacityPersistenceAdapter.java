@@ -1,124 +1,348 @@
 package com.example.resilient_api.infrastructure.adapters.persistenceadapter;
 
 import com.example.resilient_api.domain.model.Capacity;
+import com.example.resilient_api.domain.model.PageCursor;
 import com.example.resilient_api.domain.model.PaginationRequest;
+import com.example.resilient_api.domain.model.TotalCount;
 import com.example.resilient_api.domain.spi.CapacityPersistencePort;
-import com.example.resilient_api.infrastructure.adapters.persistenceadapter.entity.CapacityEntity;
-import com.example.resilient_api.infrastructure.adapters.persistenceadapter.entity.CapacityTechnologyEntity;
-import com.example.resilient_api.infrastructure.adapters.persistenceadapter.mapper.CapacityEntityMapper;
 import com.example.resilient_api.infrastructure.adapters.persistenceadapter.repository.CapacityRepository;
-import com.example.resilient_api.infrastructure.adapters.persistenceadapter.repository.CapacityTechnologyRepository;
+import com.example.resilient_api.infrastructure.cache.CatalogueChange;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 @AllArgsConstructor
 @Slf4j
 public class CapacityPersistenceAdapter implements CapacityPersistencePort {
 
+    private static final int EXISTENCE_CHECK_CHUNK_SIZE = 10_000;
+    // ~20 bytes por id: cada NOTIFY queda por debajo del límite de 8000 bytes del payload
+    private static final int NOTIFY_IDS_PER_MESSAGE = 300;
+
+    // Una sentencia fija por orden, dirección y tipo de paginación: el texto no cambia entre llamadas
+    // y el caché de prepared statements del driver la reutiliza en lugar de volver a parsearla
+    private static final Map<PaginatedQueryKey, String> PAGINATED_QUERIES = buildPaginatedQueries();
+
     private final CapacityRepository capacityRepository;
-    private final CapacityTechnologyRepository capacityTechnologyRepository;
-    private final CapacityEntityMapper capacityEntityMapper;
     private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final PaginationRequest.CountMode defaultCountMode;
+    private final Duration countCacheTtl;
+    // Canal de NOTIFY para avisar altas a las demás instancias; null si no se publica
+    private final String catalogueChannel;
+    private final AtomicReference<CachedCount> cachedTotal = new AtomicReference<>();
 
     @Override
     public Mono<Capacity> save(Capacity capacity) {
-        log.info("Saving capacity with name: {}", capacity.name());
-
-        // Guardar la capacidad
-        return capacityRepository.save(capacityEntityMapper.toEntity(capacity))
-                .flatMap(savedCapacityEntity -> {
-                    // Guardar las relaciones con tecnologías
-                    List<Long> technologyIds = capacity.technologyIds();
-                    if (technologyIds != null && !technologyIds.isEmpty()) {
-                        return saveCapacityTechnologies(savedCapacityEntity.getId(), technologyIds)
-                                .then(Mono.just(capacityEntityMapper.toModel(savedCapacityEntity)))
-                                .map(savedCapacity -> new Capacity(
-                                        savedCapacity.id(),
-                                        savedCapacity.name(),
-                                        savedCapacity.description(),
-                                        technologyIds
-                                ));
+        log.debug("Saving capacity with name: {}", capacity.name());
+
+        List<Long> technologyIds = capacity.technologyIds() != null ? capacity.technologyIds() : List.of();
+
+        // Inserción optimista: la restricción UNIQUE(name) decide; sin fila devuelta el nombre ya existía
+        return databaseClient.sql("""
+                        INSERT INTO capacity (name, description, technology_count, technology_ids)
+                        VALUES (:name, :description, :technologyCount, :technologyIds)
+                        ON CONFLICT (name) DO NOTHING
+                        RETURNING id
+                        """)
+                .bind("name", capacity.name())
+                .bind("description", capacity.description())
+                .bind("technologyCount", technologyIds.size())
+                .bind("technologyIds", technologyIds.toArray(Long[]::new))
+                .map((row, metadata) -> row.get("id", Long.class))
+                .one()
+                // Guardar las relaciones con tecnologías en la misma transacción
+                .flatMap(capacityId -> (technologyIds.isEmpty()
+                        ? Mono.<Void>empty()
+                        : saveCapacityTechnologies(capacityId, technologyIds))
+                        .then(notifyCatalogueChange(List.of(capacityId)))
+                        .thenReturn(new Capacity(capacityId, capacity.name(), capacity.description(), technologyIds)))
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(savedCapacity -> {
+                    if (savedCapacity == null) {
+                        log.debug("Capacity with name {} already exists, nothing saved", capacity.name());
+                        return;
                     }
-                    return Mono.just(capacityEntityMapper.toModel(savedCapacityEntity));
-                })
-                .doOnSuccess(savedCapacity -> log.info("Capacity saved successfully with id: {}", savedCapacity.id()))
-                .doOnError(error -> log.error("Error saving capacity", error));
+                    cachedTotal.set(null);
+                    log.debug("Capacity saved successfully with id: {}", savedCapacity.id());
+                });
+    }
+
+    @Override
+    public Flux<Capacity> saveAll(List<Capacity> capacities) {
+        if (capacities.isEmpty()) {
+            return Flux.empty();
+        }
+
+        // Un INSERT multi-fila para las capacidades del lote
+        return databaseClient.sql("""
+                        INSERT INTO capacity (name, description, technology_count)
+                        SELECT * FROM UNNEST(:names, :descriptions, :technologyCounts)
+                        ON CONFLICT (name) DO NOTHING
+                        RETURNING id, name
+                        """)
+                .bind("names", capacities.stream().map(Capacity::name).toArray(String[]::new))
+                .bind("descriptions", capacities.stream().map(Capacity::description).toArray(String[]::new))
+                .bind("technologyCounts", capacities.stream()
+                        .map(capacity -> capacity.technologyIds().size())
+                        .toArray(Integer[]::new))
+                .map((row, metadata) -> Map.entry(row.get("name", String.class), row.get("id", Long.class)))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                // Las capacidades cuyo nombre se insertó en paralelo por otro request no vuelven en RETURNING
+                .flatMapMany(idsByName -> saveCapacityTechnologies(capacities, idsByName)
+                        .then(notifyCatalogueChange(List.copyOf(idsByName.values())))
+                        .thenMany(Flux.fromIterable(capacities)
+                                .filter(capacity -> idsByName.containsKey(capacity.name()))
+                                .map(capacity -> new Capacity(
+                                        idsByName.get(capacity.name()),
+                                        capacity.name(),
+                                        capacity.description(),
+                                        capacity.technologyIds()
+                                ))))
+                .as(transactionalOperator::transactional)
+                .doOnComplete(() -> cachedTotal.set(null));
+    }
+
+    @Override
+    public Flux<String> findExistingNames(List<String> names) {
+        if (names.isEmpty()) {
+            return Flux.empty();
+        }
+        return databaseClient.sql("SELECT c.name FROM capacity c WHERE c.name = ANY(:names)")
+                .bind("names", names.toArray(String[]::new))
+                .map((row, metadata) -> row.get("name", String.class))
+                .all();
     }
 
     @Override
     public Mono<Boolean> existByName(String name) {
-        return capacityRepository.findByName(name)
-                .map(capacityEntity -> true)
+        // Solo se consulta el índice único de name, sin hidratar la entidad
+        return databaseClient.sql("SELECT EXISTS(SELECT 1 FROM capacity c WHERE c.name = :name) AS found")
+                .bind("name", name)
+                .map((row, metadata) -> row.get("found", Boolean.class))
+                .one()
                 .defaultIfEmpty(false);
     }
 
     @Override
     public Flux<Long> findExistingIdsByIds(List<Long> ids) {
-        return capacityRepository.findAllByIdIn(ids)
-                .map(CapacityEntity::getId);
+        // Solo la columna id, un único parámetro de tipo arreglo por lote
+        return Flux.fromIterable(ids)
+                .buffer(EXISTENCE_CHECK_CHUNK_SIZE)
+                .concatMap(chunk -> databaseClient.sql("SELECT c.id FROM capacity c WHERE c.id = ANY(:ids)")
+                        .bind("ids", chunk.toArray(Long[]::new))
+                        .map((row, metadata) -> row.get("id", Long.class))
+                        .all());
     }
 
     @Override
     public Flux<Capacity> findAllPaginated(PaginationRequest paginationRequest) {
-        String orderBy = buildOrderByClause(paginationRequest);
-        String query = """
-                SELECT c.id, c.name, c.description
-                FROM capacity c
-                LEFT JOIN capacity_technology ct ON c.id = ct.capacity_id
-                GROUP BY c.id, c.name, c.description
-                ORDER BY %s
-                LIMIT :limit OFFSET :offset
-                """.formatted(orderBy);
-
-        return databaseClient.sql(query)
-                .bind("limit", paginationRequest.size())
-                .bind("offset", paginationRequest.getOffset())
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(PAGINATED_QUERIES.get(new PaginatedQueryKey(
+                        paginationRequest.sortBy(), paginationRequest.sortDirection(), paginationRequest.isKeyset())))
+                .bind("limit", paginationRequest.size());
+
+        PageCursor cursor = paginationRequest.cursor();
+        if (cursor != null) {
+            spec = spec.bind("cursorName", cursor.name())
+                    .bind("cursorId", cursor.id());
+            if (paginationRequest.sortBy() == PaginationRequest.SortField.TECHNOLOGY_COUNT) {
+                spec = spec.bind("cursorCount", cursor.technologyCount());
+            }
+        } else {
+            spec = spec.bind("offset", paginationRequest.getOffset());
+        }
+
+        // Cada fila ya trae sus ids de tecnologías en el orden en que se registraron
+        return spec
                 .map((row, metadata) -> {
-                    CapacityEntity entity = new CapacityEntity();
-                    entity.setId(row.get("id", Long.class));
-                    entity.setName(row.get("name", String.class));
-                    entity.setDescription(row.get("description", String.class));
-                    return entity;
+                    Long[] technologyIds = row.get("technology_ids", Long[].class);
+                    return new Capacity(
+                            row.get("id", Long.class),
+                            row.get("name", String.class),
+                            row.get("description", String.class),
+                            technologyIds != null ? List.of(technologyIds) : List.of());
                 })
-                .all()
-                .map(capacityEntityMapper::toModel);
+                .all();
     }
 
     @Override
-    public Mono<Long> count() {
-        return capacityRepository.count();
+    public Mono<TotalCount> count(PaginationRequest.CountMode countMode) {
+        PaginationRequest.CountMode mode = countMode != null ? countMode : defaultCountMode;
+        return switch (mode) {
+            case EXACT -> exactCount();
+            case CACHED -> cachedCount();
+            case ESTIMATED -> estimatedCount();
+        };
     }
 
-    @Override
-    public Flux<Long> findTechnologyIdsByCapacityId(Long capacityId) {
-        return capacityTechnologyRepository.findAllByCapacityId(capacityId)
-                .map(CapacityTechnologyEntity::getTechnologyId);
+    private Mono<TotalCount> exactCount() {
+        return capacityRepository.count().map(TotalCount::exact);
     }
 
-    private String buildOrderByClause(PaginationRequest paginationRequest) {
-        String direction = paginationRequest.sortDirection() == PaginationRequest.SortDirection.ASC ? "ASC" : "DESC";
+    private Mono<TotalCount> cachedCount() {
+        CachedCount cached = cachedTotal.get();
+        if (cached != null && cached.loadedAt().plus(countCacheTtl).isAfter(Instant.now())) {
+            return Mono.just(TotalCount.exact(cached.value()));
+        }
+        return capacityRepository.count()
+                .doOnNext(total -> cachedTotal.compareAndSet(cached, new CachedCount(total, Instant.now())))
+                .map(TotalCount::exact);
+    }
+
+    private Mono<TotalCount> estimatedCount() {
+        // Estimación de las estadísticas del planner; si la tabla nunca fue analizada se usa el conteo exacto
+        return databaseClient.sql("SELECT reltuples::bigint AS estimate FROM pg_class WHERE oid = 'capacity'::regclass")
+                .map((row, metadata) -> row.get("estimate", Long.class))
+                .one()
+                .filter(estimate -> estimate >= 0)
+                .map(TotalCount::estimated)
+                .switchIfEmpty(Mono.defer(this::exactCount));
+    }
 
-        return switch (paginationRequest.sortBy()) {
-            case NAME -> "c.name " + direction;
-            case TECHNOLOGY_COUNT -> "COUNT(ct.technology_id) " + direction + ", c.name ASC";
+    private static Map<PaginatedQueryKey, String> buildPaginatedQueries() {
+        Map<PaginatedQueryKey, String> queries = new HashMap<>();
+        for (PaginationRequest.SortField sortBy : PaginationRequest.SortField.values()) {
+            for (PaginationRequest.SortDirection sortDirection : PaginationRequest.SortDirection.values()) {
+                for (boolean keyset : new boolean[]{false, true}) {
+                    queries.put(new PaginatedQueryKey(sortBy, sortDirection, keyset),
+                            buildPaginatedQuery(sortBy, sortDirection, keyset));
+                }
+            }
+        }
+        return Map.copyOf(queries);
+    }
+
+    private static String buildPaginatedQuery(PaginationRequest.SortField sortBy,
+                                              PaginationRequest.SortDirection sortDirection,
+                                              boolean keyset) {
+        boolean ascending = sortDirection == PaginationRequest.SortDirection.ASC;
+        String direction = ascending ? "ASC" : "DESC";
+        String comparator = ascending ? ">" : "<";
+        String limit = keyset ? "LIMIT :limit" : "LIMIT :limit OFFSET :offset";
+
+        return switch (sortBy) {
+            // Ordenar por nombre no necesita el join con capacity_technology
+            case NAME -> """
+                    SELECT c.id, c.name, c.description, c.technology_ids
+                    FROM capacity c
+                    %s
+                    ORDER BY c.name %s, c.id %s
+                    %s
+                    """.formatted(
+                    keyset
+                            ? "WHERE (c.name, c.id) " + comparator + " (:cursorName, :cursorId)"
+                            : "",
+                    direction, direction, limit);
+            // El desempate es siempre name ASC, id ASC, también con technology_count DESC.
+            // Índices (technology_count, name, id) y (technology_count DESC, name, id), uno por dirección
+            case TECHNOLOGY_COUNT -> """
+                    SELECT c.id, c.name, c.description, c.technology_ids
+                    FROM capacity c
+                    %s
+                    ORDER BY c.technology_count %s, c.name ASC, c.id ASC
+                    %s
+                    """.formatted(
+                    keyset ? technologyCountKeysetPredicate(ascending) : "",
+                    direction, limit);
         };
     }
 
+    private static String technologyCountKeysetPredicate(boolean ascending) {
+        if (ascending) {
+            return "WHERE (c.technology_count, c.name, c.id) > (:cursorCount, :cursorName, :cursorId)";
+        }
+        // Direcciones mezcladas: no sirve una sola comparación de filas. La primera condición acota
+        // el rango del índice; la segunda descarta lo ya devuelto dentro del mismo conteo
+        return """
+                WHERE c.technology_count <= :cursorCount
+                  AND (c.technology_count < :cursorCount OR (c.name, c.id) > (:cursorName, :cursorId))""";
+    }
+
+    /**
+     * Descarta el conteo cacheado; lo usa el bus de invalidación cuando otra instancia registra capacidades.
+     */
+    public void invalidateCachedCount() {
+        cachedTotal.set(null);
+    }
+
+    private Mono<Void> notifyCatalogueChange(List<Long> capacityIds) {
+        if (catalogueChannel == null || capacityIds.isEmpty()) {
+            return Mono.empty();
+        }
+        // Dentro de la transacción: Postgres entrega la notificación solo si se confirma
+        return Flux.fromIterable(capacityIds)
+                .buffer(NOTIFY_IDS_PER_MESSAGE)
+                .concatMap(ids -> databaseClient.sql("SELECT pg_notify(:channel, :payload)")
+                        .bind("channel", catalogueChannel)
+                        .bind("payload", CatalogueChange.created(ids).toPayload())
+                        .then())
+                .then();
+    }
+
     private Mono<Void> saveCapacityTechnologies(Long capacityId, List<Long> technologyIds) {
-        return Flux.fromIterable(technologyIds)
-                .map(technologyId -> {
-                    CapacityTechnologyEntity entity = new CapacityTechnologyEntity();
-                    entity.setCapacityId(capacityId);
-                    entity.setTechnologyId(technologyId);
-                    return entity;
-                })
-                .flatMap(capacityTechnologyRepository::save)
+        // Todas las relaciones en una sola sentencia
+        return databaseClient.sql("""
+                        INSERT INTO capacity_technology (capacity_id, technology_id)
+                        SELECT :capacityId, UNNEST(:technologyIds)
+                        """)
+                .bind("capacityId", capacityId)
+                .bind("technologyIds", technologyIds.toArray(Long[]::new))
+                .fetch()
+                .rowsUpdated()
                 .then();
     }
-}
 
+    private Mono<Void> saveCapacityTechnologies(List<Capacity> capacities, Map<String, Long> idsByName) {
+        List<Long> capacityIds = new ArrayList<>();
+        List<Long> technologyIds = new ArrayList<>();
+        capacities.stream()
+                .filter(capacity -> idsByName.containsKey(capacity.name()))
+                .forEach(capacity -> capacity.technologyIds().forEach(technologyId -> {
+                    capacityIds.add(idsByName.get(capacity.name()));
+                    technologyIds.add(technologyId);
+                }));
+
+        // Las relaciones de todo el lote y la proyección technology_ids de cada capacidad en una sola sentencia;
+        // UNNEST no admite un arreglo por fila, por eso los ids se agregan desde las relaciones insertadas
+        return databaseClient.sql("""
+                        WITH links AS (
+                            INSERT INTO capacity_technology (capacity_id, technology_id)
+                            SELECT * FROM UNNEST(:capacityIds, :technologyIds)
+                            RETURNING id, capacity_id, technology_id
+                        )
+                        UPDATE capacity c
+                        SET technology_ids = grouped.technology_ids
+                        FROM (
+                            SELECT capacity_id, array_agg(technology_id ORDER BY id) AS technology_ids
+                            FROM links
+                            GROUP BY capacity_id
+                        ) grouped
+                        WHERE c.id = grouped.capacity_id
+                        """)
+                .bind("capacityIds", capacityIds.toArray(Long[]::new))
+                .bind("technologyIds", technologyIds.toArray(Long[]::new))
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+
+    private record CachedCount(long value, Instant loadedAt) {
+    }
+
+    private record PaginatedQueryKey(PaginationRequest.SortField sortBy,
+                                     PaginationRequest.SortDirection sortDirection,
+                                     boolean keyset) {
+    }
+}
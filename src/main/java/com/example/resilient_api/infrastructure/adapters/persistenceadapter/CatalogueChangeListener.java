@@ -0,0 +1,104 @@
+package com.example.resilient_api.infrastructure.adapters.persistenceadapter;
+
+import com.example.resilient_api.infrastructure.cache.CatalogueChange;
+import com.example.resilient_api.infrastructure.cache.CatalogueInvalidationBus;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * Mantiene un LISTEN sobre el canal del catálogo en una conexión propia (fuera del pool) y publica cada
+ * notificación en el bus local. Si la conexión se cae, reconecta y publica una invalidación completa,
+ * porque las notificaciones emitidas mientras tanto se perdieron.
+ */
+@Slf4j
+public class CatalogueChangeListener implements SmartLifecycle {
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final Duration MAX_RECONNECT_DELAY = Duration.ofSeconds(30);
+
+    private final ConnectionFactory connectionFactory;
+    private final String channel;
+    private final CatalogueInvalidationBus invalidationBus;
+    private final Duration reconnectDelay;
+    private final AtomicBoolean listenedBefore = new AtomicBoolean();
+    private Disposable subscription;
+
+    public CatalogueChangeListener(ConnectionFactory connectionFactory,
+                                   String channel,
+                                   CatalogueInvalidationBus invalidationBus,
+                                   Duration reconnectDelay) {
+        // LISTEN no admite parámetros: el nombre del canal va en el SQL y se valida aquí
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid catalogue notification channel: " + channel);
+        }
+        this.connectionFactory = connectionFactory;
+        this.channel = channel;
+        this.invalidationBus = invalidationBus;
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    @Override
+    public void start() {
+        subscription = Flux.usingWhen(
+                        Mono.from(connectionFactory.create()).cast(PostgresqlConnection.class),
+                        this::listen,
+                        Connection::close)
+                .doOnError(error -> log.warn("Catalogue LISTEN connection lost, reconnecting: {}", error.toString()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, reconnectDelay)
+                        .maxBackoff(MAX_RECONNECT_DELAY)
+                        // Cada LISTEN exitoso emite al menos una señal, así que reinicia el backoff
+                        // aunque la sesión no reciba ninguna notificación: solo cuentan los fallos seguidos
+                        .transientErrors(true))
+                // Si el servidor cierra la conexión sin error, el flujo completa y también se reconecta
+                .repeatWhen(completed -> completed.delayElements(reconnectDelay))
+                .flatMap(Mono::justOrEmpty)
+                .subscribe(invalidationBus::publish);
+    }
+
+    @Override
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return subscription != null && !subscription.isDisposed();
+    }
+
+    /**
+     * Emite vacío al quedar escuchando por primera vez y una invalidación completa en cada reconexión;
+     * luego, una señal por notificación.
+     */
+    private Flux<Optional<CatalogueChange>> listen(PostgresqlConnection connection) {
+        Flux<Optional<CatalogueChange>> notifications = connection.getNotifications()
+                .map(notification -> Optional.of(CatalogueChange.fromPayload(notification.getParameter())));
+        Mono<Optional<CatalogueChange>> listening = connection.createStatement("LISTEN " + channel)
+                .execute()
+                .flatMap(PostgresqlResult::getRowsUpdated)
+                .then(Mono.fromSupplier(() -> {
+                    log.info("Listening for catalogue changes on channel {}", channel);
+                    // Tras una reconexión no se sabe qué cambió mientras tanto
+                    return listenedBefore.getAndSet(true)
+                            ? Optional.of(CatalogueChange.everything())
+                            : Optional.<CatalogueChange>empty();
+                }));
+
+        // Las notificaciones se suscriben antes del LISTEN para no perder ninguna en el medio
+        return Flux.merge(notifications, listening);
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.resilient_api.infrastructure.adapters.persistenceadapter;
+
+import com.example.resilient_api.domain.model.Capacity;
+import com.example.resilient_api.domain.model.PaginationRequest;
+import com.example.resilient_api.domain.model.TotalCount;
+import com.example.resilient_api.domain.spi.CapacityPersistencePort;
+import com.example.resilient_api.infrastructure.cache.CatalogueChange;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Slf4j
+public class IndexedCapacityPersistenceAdapter implements CapacityPersistencePort, SmartLifecycle {
+
+    public enum Mode {
+        // El índice responde solo; nunca se consulta la base para la existencia
+        AUTHORITATIVE,
+        // Los ids que están en el índice existen; los que no, se confirman en la base
+        DB_VERIFIED
+    }
+
+    private final CapacityPersistencePort delegate;
+    private final DatabaseClient databaseClient;
+    private final CapacityIdIndex index = new CapacityIdIndex();
+    private final Mode mode;
+    private final Duration reconcileInterval;
+    private final Counter indexHits;
+    private final Counter databaseLookups;
+    private final Sinks.Many<Long> reloadRequests = Sinks.many().multicast().directBestEffort();
+    private Disposable reconciliation;
+
+    public IndexedCapacityPersistenceAdapter(CapacityPersistencePort delegate,
+                                             DatabaseClient databaseClient,
+                                             Mode mode,
+                                             Duration reconcileInterval,
+                                             MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.databaseClient = databaseClient;
+        this.mode = mode;
+        this.reconcileInterval = reconcileInterval;
+
+        Gauge.builder("capacity.id.index.size", index, CapacityIdIndex::size)
+                .description("Capacity ids held in the in-memory index")
+                .register(meterRegistry);
+        Gauge.builder("capacity.id.index.staleness", index, this::stalenessSeconds)
+                .description("Seconds since the index was last reconciled with the database")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.indexHits = Counter.builder("capacity.id.index.lookups")
+                .tag("source", "index")
+                .description("Existence lookups answered by the in-memory index")
+                .register(meterRegistry);
+        this.databaseLookups = Counter.builder("capacity.id.index.lookups")
+                .tag("source", "database")
+                .description("Existence lookups sent to the database")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        // Carga inicial inmediata y luego reconciliación periódica con la tabla, o a pedido del bus de invalidación
+        reconciliation = Flux.merge(Flux.interval(Duration.ZERO, reconcileInterval), reloadRequests.asFlux())
+                .onBackpressureDrop()
+                .concatMap(tick -> reload(), 1)
+                .subscribe();
+    }
+
+    @Override
+    public void stop() {
+        if (reconciliation != null) {
+            reconciliation.dispose();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return reconciliation != null && !reconciliation.isDisposed();
+    }
+
+    /**
+     * Altas hechas por otras instancias: se agregan los ids notificados; si no se conocen, se recarga el índice.
+     */
+    public void onCatalogueChange(CatalogueChange change) {
+        if (change.invalidateAll()) {
+            reloadRequests.tryEmitNext(System.nanoTime());
+            return;
+        }
+        index.addAll(change.capacityIds().stream().mapToLong(Long::longValue).toArray());
+    }
+
+    @Override
+    public Mono<Capacity> save(Capacity capacity) {
+        return delegate.save(capacity)
+                .doOnSuccess(saved -> {
+                    if (saved != null && saved.id() != null) {
+                        index.add(saved.id());
+                    }
+                });
+    }
+
+    @Override
+    public Flux<Capacity> saveAll(List<Capacity> capacities) {
+        List<Long> savedIds = new ArrayList<>(capacities.size());
+        return delegate.saveAll(capacities)
+                .doOnNext(saved -> savedIds.add(saved.id()))
+                .doOnComplete(() -> index.addAll(savedIds.stream().mapToLong(Long::longValue).toArray()));
+    }
+
+    @Override
+    public Mono<Boolean> existByName(String name) {
+        return delegate.existByName(name);
+    }
+
+    @Override
+    public Flux<String> findExistingNames(List<String> names) {
+        return delegate.findExistingNames(names);
+    }
+
+    @Override
+    public Flux<Long> findExistingIdsByIds(List<Long> ids) {
+        if (!index.isReady()) {
+            databaseLookups.increment(ids.size());
+            return delegate.findExistingIdsByIds(ids);
+        }
+
+        List<Long> found = new ArrayList<>(ids.size());
+        List<Long> notIndexed = new ArrayList<>();
+        for (Long id : ids) {
+            if (id != null && index.contains(id)) {
+                found.add(id);
+            } else if (id != null) {
+                notIndexed.add(id);
+            }
+        }
+        indexHits.increment(found.size());
+
+        if (mode == Mode.AUTHORITATIVE || notIndexed.isEmpty()) {
+            return Flux.fromIterable(found);
+        }
+        databaseLookups.increment(notIndexed.size());
+        // Los ids confirmados se agregan juntos al terminar, con una sola toma del lock del índice
+        return Flux.fromIterable(found)
+                .concatWith(Flux.defer(() -> {
+                    List<Long> confirmed = new ArrayList<>(notIndexed.size());
+                    return delegate.findExistingIdsByIds(notIndexed)
+                            .doOnNext(confirmed::add)
+                            .doOnComplete(() -> index.addAll(confirmed.stream().mapToLong(Long::longValue).toArray()));
+                }));
+    }
+
+    @Override
+    public Flux<Capacity> findAllPaginated(PaginationRequest paginationRequest) {
+        return delegate.findAllPaginated(paginationRequest);
+    }
+
+    @Override
+    public Mono<TotalCount> count(PaginationRequest.CountMode countMode) {
+        return delegate.count(countMode);
+    }
+
+    private Mono<Void> reload() {
+        return Mono.fromRunnable(index::beginReload)
+                .thenMany(databaseClient.sql("SELECT c.id FROM capacity c")
+                        .map((row, metadata) -> row.get("id", Long.class))
+                        .all())
+                .collect(LongBuffer::new, LongBuffer::add)
+                .doOnNext(loaded -> {
+                    index.completeReload(loaded.toArray());
+                    log.info("Capacity id index reconciled with {} ids", index.size());
+                })
+                .doOnError(error -> {
+                    index.abortReload();
+                    log.error("Error reconciling capacity id index", error);
+                })
+                .onErrorResume(error -> Mono.empty())
+                .then();
+    }
+
+    private double stalenessSeconds(CapacityIdIndex capacityIdIndex) {
+        Instant loadedAt = capacityIdIndex.loadedAt();
+        return loadedAt == null ? Double.NaN : Duration.between(loadedAt, Instant.now()).toMillis() / 1000.0;
+    }
+
+    private static final class LongBuffer {
+        private long[] values = new long[1024];
+        private int size;
+
+        private void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
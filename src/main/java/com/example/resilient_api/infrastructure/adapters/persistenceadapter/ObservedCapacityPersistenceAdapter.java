@@ -0,0 +1,86 @@
+package com.example.resilient_api.infrastructure.adapters.persistenceadapter;
+
+import com.example.resilient_api.domain.model.Capacity;
+import com.example.resilient_api.domain.model.PaginationRequest;
+import com.example.resilient_api.domain.model.TotalCount;
+import com.example.resilient_api.domain.spi.CapacityPersistencePort;
+import com.example.resilient_api.infrastructure.observability.StageObservations;
+import io.micrometer.common.KeyValues;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Mide cada consulta a la base como capacity.db. Todas las series llevan query, sort, page.size, pagination y
+ * count.mode; los que no aplican a la consulta van como "none".
+ */
+public class ObservedCapacityPersistenceAdapter implements CapacityPersistencePort {
+
+    private static final String OBSERVATION = "capacity.db";
+
+    private final CapacityPersistencePort delegate;
+    private final StageObservations observations;
+
+    public ObservedCapacityPersistenceAdapter(CapacityPersistencePort delegate, StageObservations observations) {
+        this.delegate = delegate;
+        this.observations = observations;
+    }
+
+    @Override
+    public Mono<Capacity> save(Capacity capacity) {
+        return observations.observe(OBSERVATION, query("save"), delegate.save(capacity));
+    }
+
+    @Override
+    public Flux<Capacity> saveAll(List<Capacity> capacities) {
+        return observations.observe(OBSERVATION, query("save_all"), delegate.saveAll(capacities));
+    }
+
+    @Override
+    public Mono<Boolean> existByName(String name) {
+        return observations.observe(OBSERVATION, query("exist_by_name"), delegate.existByName(name));
+    }
+
+    @Override
+    public Flux<String> findExistingNames(List<String> names) {
+        return observations.observe(OBSERVATION, query("find_existing_names"), delegate.findExistingNames(names));
+    }
+
+    @Override
+    public Flux<Long> findExistingIdsByIds(List<Long> ids) {
+        return observations.observe(OBSERVATION, query("find_existing_ids"), delegate.findExistingIdsByIds(ids));
+    }
+
+    @Override
+    public Flux<Capacity> findAllPaginated(PaginationRequest paginationRequest) {
+        return observations.observe(OBSERVATION,
+                tags("find_page", paginationRequest.sortBy().name(),
+                        StageObservations.pageSizeBucket(paginationRequest.size()),
+                        paginationRequest.isKeyset() ? "keyset" : "offset",
+                        StageObservations.NOT_APPLICABLE),
+                delegate.findAllPaginated(paginationRequest));
+    }
+
+    @Override
+    public Mono<TotalCount> count(PaginationRequest.CountMode countMode) {
+        return observations.observe(OBSERVATION,
+                tags("count", StageObservations.NOT_APPLICABLE, StageObservations.NOT_APPLICABLE,
+                        StageObservations.NOT_APPLICABLE, countMode != null ? countMode.name() : "DEFAULT"),
+                delegate.count(countMode));
+    }
+
+    private static KeyValues query(String query) {
+        return tags(query, StageObservations.NOT_APPLICABLE, StageObservations.NOT_APPLICABLE,
+                StageObservations.NOT_APPLICABLE, StageObservations.NOT_APPLICABLE);
+    }
+
+    private static KeyValues tags(String query, String sort, String pageSize, String pagination, String countMode) {
+        return KeyValues.of(
+                "query", query,
+                "sort", sort,
+                "page.size", pageSize,
+                "pagination", pagination,
+                "count.mode", countMode);
+    }
+}
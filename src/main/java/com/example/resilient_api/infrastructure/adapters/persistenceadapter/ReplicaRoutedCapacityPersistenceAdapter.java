@@ -0,0 +1,66 @@
+package com.example.resilient_api.infrastructure.adapters.persistenceadapter;
+
+import com.example.resilient_api.domain.model.Capacity;
+import com.example.resilient_api.domain.model.PaginationRequest;
+import com.example.resilient_api.domain.model.TotalCount;
+import com.example.resilient_api.domain.spi.CapacityPersistencePort;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static com.example.resilient_api.infrastructure.adapters.persistenceadapter.ReplicaRoutingConnectionFactory.readOnly;
+
+/**
+ * Marca como lecturas de réplica el listado, el conteo y las verificaciones de existencia por id.
+ * existByName y findExistingNames siguen en el primario: deciden si un nombre se puede registrar.
+ */
+public class ReplicaRoutedCapacityPersistenceAdapter implements CapacityPersistencePort {
+
+    private final CapacityPersistencePort delegate;
+    private final ReplicaRoutingConnectionFactory routingConnectionFactory;
+
+    public ReplicaRoutedCapacityPersistenceAdapter(CapacityPersistencePort delegate,
+                                                   ReplicaRoutingConnectionFactory routingConnectionFactory) {
+        this.delegate = delegate;
+        this.routingConnectionFactory = routingConnectionFactory;
+    }
+
+    @Override
+    public Mono<Capacity> save(Capacity capacity) {
+        return delegate.save(capacity)
+                .doOnNext(savedCapacity -> routingConnectionFactory.recordWrite());
+    }
+
+    @Override
+    public Flux<Capacity> saveAll(List<Capacity> capacities) {
+        // Se abre la ventana aunque el lote no inserte nada: es más barato que contar filas
+        return delegate.saveAll(capacities)
+                .doOnComplete(routingConnectionFactory::recordWrite);
+    }
+
+    @Override
+    public Mono<Boolean> existByName(String name) {
+        return delegate.existByName(name);
+    }
+
+    @Override
+    public Flux<String> findExistingNames(List<String> names) {
+        return delegate.findExistingNames(names);
+    }
+
+    @Override
+    public Flux<Long> findExistingIdsByIds(List<Long> ids) {
+        return readOnly(delegate.findExistingIdsByIds(ids));
+    }
+
+    @Override
+    public Flux<Capacity> findAllPaginated(PaginationRequest paginationRequest) {
+        return readOnly(delegate.findAllPaginated(paginationRequest));
+    }
+
+    @Override
+    public Mono<TotalCount> count(PaginationRequest.CountMode countMode) {
+        return readOnly(delegate.count(countMode));
+    }
+}
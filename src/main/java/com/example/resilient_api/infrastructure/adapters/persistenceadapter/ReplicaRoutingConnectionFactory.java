@@ -0,0 +1,82 @@
+package com.example.resilient_api.infrastructure.adapters.persistenceadapter;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.r2dbc.connection.lookup.AbstractRoutingConnectionFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Envía a la réplica las lecturas marcadas con {@link #readOnly(Mono)}; el resto, incluidas las transacciones,
+ * va al primario. Durante una ventana corta tras una escritura las lecturas también van al primario
+ * para que no se lean datos que la réplica aún no recibió.
+ */
+public class ReplicaRoutingConnectionFactory extends AbstractRoutingConnectionFactory {
+
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private static final String READ_ONLY_KEY = ReplicaRoutingConnectionFactory.class.getName() + ".READ_ONLY";
+
+    private final boolean replicaAvailable;
+    private final long readYourWritesWindowNanos;
+    private final AtomicLong lastWriteNanos;
+
+    public ReplicaRoutingConnectionFactory(ConnectionFactory primary,
+                                           ConnectionFactory replica,
+                                           Duration readYourWritesWindow) {
+        this.replicaAvailable = replica != null;
+        this.readYourWritesWindowNanos = readYourWritesWindow.toNanos();
+        // Arranca fuera de la ventana: sin escrituras recientes las lecturas pueden ir a la réplica
+        this.lastWriteNanos = new AtomicLong(System.nanoTime() - readYourWritesWindowNanos);
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(Route.PRIMARY, primary);
+        if (replicaAvailable) {
+            targets.put(Route.REPLICA, replica);
+        }
+        setTargetConnectionFactories(targets);
+        setDefaultTargetConnectionFactory(primary);
+        afterPropertiesSet();
+    }
+
+    public static <T> Mono<T> readOnly(Mono<T> query) {
+        return query.contextWrite(context -> context.put(READ_ONLY_KEY, Boolean.TRUE));
+    }
+
+    public static <T> Flux<T> readOnly(Flux<T> query) {
+        return query.contextWrite(context -> context.put(READ_ONLY_KEY, Boolean.TRUE));
+    }
+
+    /**
+     * Abre la ventana de read-your-writes; se llama después de confirmar la escritura en el primario.
+     */
+    public void recordWrite() {
+        lastWriteNanos.set(System.nanoTime());
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    @Override
+    protected Mono<Object> determineCurrentLookupKey() {
+        return Mono.deferContextual(context -> {
+            boolean readOnly = context.getOrDefault(READ_ONLY_KEY, Boolean.FALSE);
+            if (!readOnly || !replicaAvailable || withinReadYourWritesWindow()) {
+                return Mono.just(Route.PRIMARY);
+            }
+            return Mono.just(Route.REPLICA);
+        });
+    }
+
+    private boolean withinReadYourWritesWindow() {
+        return System.nanoTime() - lastWriteNanos.get() < readYourWritesWindowNanos;
+    }
+}
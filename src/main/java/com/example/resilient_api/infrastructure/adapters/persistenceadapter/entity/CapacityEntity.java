@@ -17,5 +17,6 @@ public class CapacityEntity {
     private Long id;
     private String name;
     private String description;
+    private Integer technologyCount;
 }
 
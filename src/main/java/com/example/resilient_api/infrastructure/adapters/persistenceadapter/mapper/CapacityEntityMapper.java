@@ -11,6 +11,7 @@ public interface CapacityEntityMapper {
     Capacity toModel(CapacityEntity entity);
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "technologyCount", ignore = true)
     CapacityEntity toEntity(Capacity capacity);
 }
 
@@ -3,14 +3,8 @@ package com.example.resilient_api.infrastructure.adapters.persistenceadapter.rep
 import com.example.resilient_api.infrastructure.adapters.persistenceadapter.entity.CapacityEntity;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
-import reactor.core.publisher.Flux;
-import reactor.core.publisher.Mono;
-
-import java.util.List;
 
 @Repository
 public interface CapacityRepository extends ReactiveCrudRepository<CapacityEntity, Long> {
-    Mono<CapacityEntity> findByName(String name);
-    Flux<CapacityEntity> findAllByIdIn(List<Long> ids);
 }
 
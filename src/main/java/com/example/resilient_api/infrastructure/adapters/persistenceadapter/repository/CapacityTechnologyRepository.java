@@ -1,12 +0,0 @@
-package com.example.resilient_api.infrastructure.adapters.persistenceadapter.repository;
-
-import com.example.resilient_api.infrastructure.adapters.persistenceadapter.entity.CapacityTechnologyEntity;
-import org.springframework.data.repository.reactive.ReactiveCrudRepository;
-import org.springframework.stereotype.Repository;
-import reactor.core.publisher.Flux;
-
-@Repository
-public interface CapacityTechnologyRepository extends ReactiveCrudRepository<CapacityTechnologyEntity, Long> {
-    Flux<CapacityTechnologyEntity> findAllByCapacityId(Long capacityId);
-}
-
@@ -1,22 +1,32 @@
 package com.example.resilient_api.infrastructure.adapters.webclient;
 
 import com.example.resilient_api.domain.exceptions.TechnicalException;
+import com.example.resilient_api.domain.model.IdExistence;
 import com.example.resilient_api.domain.model.TechnologySummary;
 import com.example.resilient_api.infrastructure.adapters.webclient.dto.TechnologyIdsRequest;
 import com.example.resilient_api.infrastructure.adapters.webclient.dto.TechnologySummaryResponse;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.reactor.timelimiter.TimeLimiterOperator;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
-import java.util.Map;
 
 import static com.example.resilient_api.domain.enums.TechnicalMessage.TECHNOLOGY_SERVICE_ERROR;
+import static com.example.resilient_api.domain.enums.TechnicalMessage.TECHNOLOGY_SERVICE_UNAVAILABLE;
 import static com.example.resilient_api.infrastructure.entrypoints.util.Constants.X_MESSAGE_ID;
 
 @Component
@@ -24,73 +34,92 @@ import static com.example.resilient_api.infrastructure.entrypoints.util.Constant
 @Slf4j
 public class TechnologyWebClient {
 
-    private final WebClient.Builder webClientBuilder;
+    private static final String TECHNOLOGY_SERVICE = "technology-service";
+    private static final String CHECK_EXISTS = "check_exists";
+    private static final String BY_IDS = "by_ids";
 
-    @Value("${external.technology.base-url}")
-    private String technologyBaseUrl;
+    private final WebClient technologyServiceWebClient;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final RetryRegistry retryRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final TimeLimiterRegistry timeLimiterRegistry;
 
-    public Mono<Map<Long, Boolean>> checkTechnologiesExist(List<Long> technologyIds, String messageId) {
-        log.info("Calling technology service to check technologies exist with messageId: {}", messageId);
-
-        return webClientBuilder.build()
+    public Mono<IdExistence> checkTechnologiesExist(List<Long> technologyIds, String messageId) {
+        return technologyServiceWebClient
                 .post()
-                .uri(technologyBaseUrl + "/technology/check-exists")
+                .uri("/technology/check-exists")
                 .header(X_MESSAGE_ID, messageId)
                 .bodyValue(new TechnologyIdsRequest(technologyIds))
                 .retrieve()
-                .onStatus(status -> status.is5xxServerError(),
-                    response -> {
-                        log.error("Technology service returned 5xx error for messageId: {}", messageId);
-                        return Mono.error(new TechnicalException(TECHNOLOGY_SERVICE_ERROR));
-                    })
-                .onStatus(status -> status.is4xxClientError(),
-                    response -> {
-                        log.error("Technology service returned 4xx error for messageId: {}", messageId);
-                        return Mono.error(new TechnicalException(TECHNOLOGY_SERVICE_ERROR));
-                    })
-                .bodyToMono(Map.class)
-                .cast(Map.class)
-                .map(map -> (Map<Long, Boolean>) map)
-                .doOnSuccess(result -> log.info("Successfully received response from technology service with messageId: {}", messageId))
-                .doOnError(ex -> log.error("Error calling technology service for messageId: {}", messageId, ex))
-                .onErrorResume(ex -> {
-                    if (ex instanceof TechnicalException) {
-                        return Mono.error(ex);
-                    }
-                    log.error("Unexpected error calling technology service for messageId: {}", messageId, ex);
-                    return Mono.error(new TechnicalException(TECHNOLOGY_SERVICE_ERROR));
-                });
+                .onStatus(HttpStatusCode::isError,
+                    response -> Mono.error(new TechnologyServiceStatusException(response.statusCode())))
+                .bodyToMono(IdExistence.class)
+                .transformDeferred(this::withResilience)
+                .doOnSuccess(result -> log.debug("Technology existence received with messageId: {}", messageId))
+                .onErrorResume(ex -> Mono.error(toTechnicalException(CHECK_EXISTS, ex, messageId)));
     }
 
     public Flux<TechnologySummary> getTechnologiesByIds(List<Long> technologyIds, String messageId) {
-        log.info("Calling technology service to get technologies by ids with messageId: {}", messageId);
-
-        return webClientBuilder.build()
+        return technologyServiceWebClient
                 .post()
-                .uri(technologyBaseUrl + "/technology/by-ids")
+                .uri("/technology/by-ids")
                 .header(X_MESSAGE_ID, messageId)
                 .bodyValue(new TechnologyIdsRequest(technologyIds))
                 .retrieve()
-                .onStatus(status -> status.is5xxServerError(),
-                    response -> {
-                        log.error("Technology service returned 5xx error for messageId: {}", messageId);
-                        return Mono.error(new TechnicalException(TECHNOLOGY_SERVICE_ERROR));
-                    })
-                .onStatus(status -> status.is4xxClientError(),
-                    response -> {
-                        log.error("Technology service returned 4xx error for messageId: {}", messageId);
-                        return Mono.error(new TechnicalException(TECHNOLOGY_SERVICE_ERROR));
-                    })
+                .onStatus(HttpStatusCode::isError,
+                    response -> Mono.error(new TechnologyServiceStatusException(response.statusCode())))
                 .bodyToFlux(TechnologySummaryResponse.class)
                 .map(response -> new TechnologySummary(response.getId(), response.getName()))
-                .doOnComplete(() -> log.info("Successfully received technologies from technology service with messageId: {}", messageId))
-                .doOnError(ex -> log.error("Error calling technology service for messageId: {}", messageId, ex))
-                .onErrorResume(ex -> {
-                    if (ex instanceof TechnicalException) {
-                        return Flux.error(ex);
-                    }
-                    log.error("Unexpected error calling technology service for messageId: {}", messageId, ex);
-                    return Flux.error(new TechnicalException(TECHNOLOGY_SERVICE_ERROR));
-                });
+                // Se reintenta la respuesta completa para no emitir tecnologías duplicadas
+                .collectList()
+                .transformDeferred(this::withResilience)
+                .flatMapIterable(technologies -> technologies)
+                .doOnComplete(() -> log.debug("Technologies received with messageId: {}", messageId))
+                .onErrorResume(ex -> Flux.error(toTechnicalException(BY_IDS, ex, messageId)));
+    }
+
+    private <T> Mono<T> withResilience(Mono<T> call) {
+        // Bulkhead y time limiter por intento; el circuit breaker registra cada intento y el retry los envuelve
+        return call
+                .transformDeferred(BulkheadOperator.of(bulkheadRegistry.bulkhead(TECHNOLOGY_SERVICE)))
+                .transformDeferred(TimeLimiterOperator.of(timeLimiterRegistry.timeLimiter(TECHNOLOGY_SERVICE)))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreakerRegistry.circuitBreaker(TECHNOLOGY_SERVICE)))
+                .transformDeferred(RetryOperator.of(retryRegistry.retry(TECHNOLOGY_SERVICE)));
+    }
+
+    /**
+     * Traduce el fallo sin registrarlo: lo registra una sola vez quien atiende el request, con esta causa.
+     */
+    private TechnicalException toTechnicalException(String operation, Throwable ex, String messageId) {
+        boolean rejected = ex instanceof CallNotPermittedException || ex instanceof BulkheadFullException;
+        String cause = ex instanceof TechnologyServiceStatusException statusException
+                ? "status_" + statusException.status.value()
+                : ex.getClass().getSimpleName();
+        return new TechnicalException(new TechnologyServiceCallException(operation, cause, messageId, ex),
+                rejected ? TECHNOLOGY_SERVICE_UNAVAILABLE : TECHNOLOGY_SERVICE_ERROR);
+    }
+
+    /**
+     * Respuesta 4xx/5xx del servicio; el time limiter y el circuit breaker la cuentan como fallo.
+     */
+    private static final class TechnologyServiceStatusException extends RuntimeException {
+
+        private final HttpStatusCode status;
+
+        private TechnologyServiceStatusException(HttpStatusCode status) {
+            super("Technology service responded " + status.value(), null, false, false);
+            this.status = status;
+        }
+    }
+
+    /**
+     * Causa de la TechnicalException: operación, motivo y messageId en el mensaje, el fallo original como causa.
+     */
+    private static final class TechnologyServiceCallException extends RuntimeException {
+
+        private TechnologyServiceCallException(String operation, String cause, String messageId, Throwable ex) {
+            super("Technology service " + operation + " failed (" + cause + ") for messageId " + messageId,
+                    ex, false, false);
+        }
     }
 }
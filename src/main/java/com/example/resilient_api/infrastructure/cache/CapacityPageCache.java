@@ -0,0 +1,81 @@
+package com.example.resilient_api.infrastructure.cache;
+
+import com.example.resilient_api.domain.model.PaginationRequest;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.util.DigestUtils;
+
+import java.time.Duration;
+
+/**
+ * Páginas de GET /capacity ya serializadas, con su ETag. Una entrada solo se usa si fue armada con la versión
+ * actual del catálogo; el TTL acota cuánto pueden quedar desactualizados los nombres de las tecnologías.
+ */
+public class CapacityPageCache {
+
+    private static final String CACHE_NAME = "capacity-pages";
+
+    private final Cache<PageKey, CachedPage> pages;
+    private final CatalogueVersion catalogueVersion;
+
+    public CapacityPageCache(CatalogueVersion catalogueVersion,
+                             long maximumSize,
+                             Duration expireAfterWrite,
+                             MeterRegistry meterRegistry) {
+        this.catalogueVersion = catalogueVersion;
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, CACHE_NAME);
+    }
+
+    public long currentVersion() {
+        return catalogueVersion.current();
+    }
+
+    public CachedPage get(PageKey key) {
+        CachedPage cached = pages.getIfPresent(key);
+        if (cached == null || cached.version() != catalogueVersion.current()) {
+            return null;
+        }
+        return cached;
+    }
+
+    /**
+     * Guarda la página solo si el catálogo no cambió mientras se armaba; igual la devuelve para responder.
+     */
+    public CachedPage put(PageKey key, byte[] body, long version) {
+        CachedPage page = new CachedPage(body, eTag(body), version);
+        if (version == catalogueVersion.current()) {
+            pages.put(key, page);
+        }
+        return page;
+    }
+
+    private static String eTag(byte[] body) {
+        // ETag fuerte: depende de los bytes exactos de la respuesta
+        return "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+    }
+
+    public record PageKey(int page, int size, PaginationRequest.SortField sortBy,
+                          PaginationRequest.SortDirection sortDirection, PaginationRequest.CountMode countMode) {
+
+        /**
+         * Solo se cachean páginas por offset; las de cursor son únicas por cliente y no se repiten.
+         */
+        public static PageKey of(PaginationRequest paginationRequest) {
+            if (paginationRequest.isKeyset()) {
+                return null;
+            }
+            return new PageKey(paginationRequest.page(), paginationRequest.size(), paginationRequest.sortBy(),
+                    paginationRequest.sortDirection(), paginationRequest.countMode());
+        }
+    }
+
+    public record CachedPage(byte[] body, String eTag, long version) {
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.resilient_api.infrastructure.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Cambio en el catálogo de capacidades: los ids dados de alta o, si no se conocen, "todo" (por ejemplo tras
+ * perder la conexión de LISTEN y no saber qué notificaciones se perdieron).
+ */
+public record CatalogueChange(List<Long> capacityIds, boolean invalidateAll) {
+
+    private static final String EVERYTHING = "*";
+    private static final String SEPARATOR = ",";
+
+    public static CatalogueChange created(List<Long> capacityIds) {
+        return new CatalogueChange(List.copyOf(capacityIds), false);
+    }
+
+    public static CatalogueChange everything() {
+        return new CatalogueChange(List.of(), true);
+    }
+
+    /**
+     * Payload de NOTIFY: ids separados por coma, o "*"; Postgres lo limita a 8000 bytes.
+     */
+    public String toPayload() {
+        if (invalidateAll) {
+            return EVERYTHING;
+        }
+        return capacityIds.stream().map(String::valueOf).collect(Collectors.joining(SEPARATOR));
+    }
+
+    public static CatalogueChange fromPayload(String payload) {
+        if (payload == null || payload.isBlank() || EVERYTHING.equals(payload)) {
+            return everything();
+        }
+        List<Long> capacityIds = new ArrayList<>();
+        try {
+            for (String id : payload.split(SEPARATOR)) {
+                capacityIds.add(Long.parseLong(id.trim()));
+            }
+        } catch (NumberFormatException ex) {
+            // Un payload que no se entiende invalida todo en lugar de perder el cambio
+            return everything();
+        }
+        return created(capacityIds);
+    }
+}
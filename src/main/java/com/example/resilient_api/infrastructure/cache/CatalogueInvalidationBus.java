@@ -0,0 +1,32 @@
+package com.example.resilient_api.infrastructure.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Bus local de invalidación: cada caché en memoria se suscribe y reacciona a los cambios del catálogo,
+ * vengan de esta instancia o de otra a través de LISTEN/NOTIFY.
+ */
+@Slf4j
+public class CatalogueInvalidationBus {
+
+    private final List<Consumer<CatalogueChange>> listeners = new CopyOnWriteArrayList<>();
+
+    public void subscribe(Consumer<CatalogueChange> listener) {
+        listeners.add(listener);
+    }
+
+    public void publish(CatalogueChange change) {
+        for (Consumer<CatalogueChange> listener : listeners) {
+            try {
+                listener.accept(change);
+            } catch (RuntimeException ex) {
+                // Un listener que falla no debe impedir que los demás invaliden
+                log.warn("Catalogue invalidation listener failed", ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.resilient_api.infrastructure.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versión del catálogo de capacidades vista por esta instancia; cada alta la incrementa y deja obsoleto
+ * todo lo cacheado con una versión anterior, sin tener que recorrer los cachés.
+ */
+public class CatalogueVersion {
+
+    private final AtomicLong version = new AtomicLong();
+
+    public long current() {
+        return version.get();
+    }
+
+    public long bump() {
+        return version.incrementAndGet();
+    }
+}
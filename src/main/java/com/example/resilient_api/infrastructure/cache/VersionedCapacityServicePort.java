@@ -0,0 +1,66 @@
+package com.example.resilient_api.infrastructure.cache;
+
+import com.example.resilient_api.domain.api.CapacityServicePort;
+import com.example.resilient_api.domain.model.Capacity;
+import com.example.resilient_api.domain.model.CapacityImportResult;
+import com.example.resilient_api.domain.model.CapacityWithTechnologies;
+import com.example.resilient_api.domain.model.IdExistence;
+import com.example.resilient_api.domain.model.Page;
+import com.example.resilient_api.domain.model.PageStream;
+import com.example.resilient_api.domain.model.PaginationRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Incrementa la versión del catálogo cada vez que se registra una capacidad, por alta individual o importación.
+ */
+public class VersionedCapacityServicePort implements CapacityServicePort {
+
+    private final CapacityServicePort delegate;
+    private final CatalogueVersion catalogueVersion;
+
+    public VersionedCapacityServicePort(CapacityServicePort delegate, CatalogueVersion catalogueVersion) {
+        this.delegate = delegate;
+        this.catalogueVersion = catalogueVersion;
+    }
+
+    @Override
+    public Mono<Capacity> registerCapacity(Capacity capacity, String messageId) {
+        return delegate.registerCapacity(capacity, messageId)
+                .doOnNext(savedCapacity -> catalogueVersion.bump());
+    }
+
+    @Override
+    public Flux<CapacityImportResult> importCapacities(Flux<Capacity> capacities, String messageId) {
+        return delegate.importCapacities(capacities, messageId)
+                .doOnNext(result -> {
+                    if (result.isCreated()) {
+                        catalogueVersion.bump();
+                    }
+                });
+    }
+
+    @Override
+    public Mono<IdExistence> checkCapacitiesExist(List<Long> ids, String messageId) {
+        return delegate.checkCapacitiesExist(ids, messageId);
+    }
+
+    @Override
+    public Mono<Page<CapacityWithTechnologies>> listCapacities(PaginationRequest paginationRequest, String messageId) {
+        return delegate.listCapacities(paginationRequest, messageId);
+    }
+
+    @Override
+    public PageStream<CapacityWithTechnologies> streamCapacities(PaginationRequest paginationRequest, String messageId) {
+        return delegate.streamCapacities(paginationRequest, messageId);
+    }
+
+    @Override
+    public PageStream<CapacityWithTechnologies> exportCapacities(PaginationRequest.SortField sortBy,
+                                                                 PaginationRequest.SortDirection sortDirection,
+                                                                 String messageId) {
+        return delegate.exportCapacities(sortBy, sortDirection, messageId);
+    }
+}
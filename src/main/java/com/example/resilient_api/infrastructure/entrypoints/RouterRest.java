@@ -15,8 +15,10 @@ public class RouterRest {
     @Bean
     public RouterFunction<ServerResponse> routerFunction(CapacityHandlerImpl capacityHandler) {
         return route(POST("/capacity"), capacityHandler::createCapacity)
+            .andRoute(POST("/capacity/bulk"), capacityHandler::importCapacities)
             .andRoute(POST("/capacity/checking"), capacityHandler::checkCapacitiesExist)
-            .andRoute(GET("/capacity"), capacityHandler::listCapacities);
+            .andRoute(GET("/capacity"), capacityHandler::listCapacities)
+            .andRoute(GET("/capacity/stream"), capacityHandler::streamCapacities);
     }
 
 }
@@ -0,0 +1,16 @@
+package com.example.resilient_api.infrastructure.entrypoints.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CapacityExistenceBitmapDTO {
+    private int size;
+    private int present;
+    private String bitmap;
+}
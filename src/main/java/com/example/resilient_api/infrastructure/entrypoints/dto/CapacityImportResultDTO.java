@@ -0,0 +1,21 @@
+package com.example.resilient_api.infrastructure.entrypoints.dto;
+
+import com.example.resilient_api.infrastructure.entrypoints.util.ErrorDTO;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CapacityImportResultDTO {
+    private long line;
+    private String name;
+    private Long id;
+    private String status;
+    private ErrorDTO error;
+}
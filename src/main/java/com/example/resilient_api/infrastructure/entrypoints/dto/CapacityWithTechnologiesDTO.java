@@ -16,5 +16,6 @@ public class CapacityWithTechnologiesDTO {
     private String name;
     private String description;
     private List<TechnologySummaryDTO> technologies;
+    private boolean partial;
 }
 
@@ -18,8 +18,10 @@ public class PageResponse<T> {
     private int page;
     private int size;
     private long totalElements;
+    private boolean totalExact;
     private int totalPages;
     private boolean first;
     private boolean last;
+    private String nextCursor;
 }
 
@@ -4,72 +4,237 @@ import com.example.resilient_api.domain.api.CapacityServicePort;
 import com.example.resilient_api.domain.enums.TechnicalMessage;
 import com.example.resilient_api.domain.exceptions.BusinessException;
 import com.example.resilient_api.domain.exceptions.TechnicalException;
+import com.example.resilient_api.infrastructure.cache.CapacityPageCache;
 import com.example.resilient_api.infrastructure.entrypoints.dto.CapacityDTO;
+import com.example.resilient_api.infrastructure.entrypoints.dto.CapacityExistenceBitmapDTO;
 import com.example.resilient_api.infrastructure.entrypoints.dto.CapacityIdsRequest;
+import com.example.resilient_api.infrastructure.entrypoints.dto.CapacityImportResultDTO;
 import com.example.resilient_api.infrastructure.entrypoints.dto.CapacityWithTechnologiesDTO;
 import com.example.resilient_api.infrastructure.entrypoints.dto.PageResponse;
-import com.example.resilient_api.infrastructure.entrypoints.dto.TechnologySummaryDTO;
+import com.example.resilient_api.domain.model.CapacityWithTechnologies;
+import com.example.resilient_api.domain.model.Page;
+import com.example.resilient_api.domain.model.PageCursor;
 import com.example.resilient_api.domain.model.PaginationRequest;
 import com.example.resilient_api.infrastructure.entrypoints.mapper.CapacityMapper;
 import com.example.resilient_api.infrastructure.entrypoints.util.APIResponse;
 import com.example.resilient_api.infrastructure.entrypoints.util.ErrorDTO;
+import com.example.resilient_api.infrastructure.observability.RequestLog;
+import com.example.resilient_api.infrastructure.observability.StageObservations;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.common.KeyValues;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.context.Context;
 
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
+import java.util.Set;
 
 import static com.example.resilient_api.infrastructure.entrypoints.util.Constants.X_MESSAGE_ID;
-import static com.example.resilient_api.infrastructure.entrypoints.util.Constants.TECHNOLOGY_ERROR;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class CapacityHandlerImpl {
 
+    private static final String HTTP_OBSERVATION = "capacity.http";
+    private static final String IMPORT_CREATED = "CREATED";
+    private static final String IMPORT_REJECTED = "REJECTED";
+    private static final String EXISTENCE_VIEW_MAP = "map";
+    private static final String EXISTENCE_VIEW_MISSING = "missing";
+    private static final String EXISTENCE_VIEW_BITMAP = "bitmap";
+    private static final Set<String> EXISTENCE_VIEWS =
+            Set.of(EXISTENCE_VIEW_MAP, EXISTENCE_VIEW_MISSING, EXISTENCE_VIEW_BITMAP);
+
     private final CapacityServicePort capacityServicePort;
     private final CapacityMapper capacityMapper;
+    private final StageObservations stageObservations;
+    private final RequestLog requestLog;
+    private final CapacityPageCache capacityPageCache;
+    private final ObjectMapper objectMapper;
 
     public Mono<ServerResponse> createCapacity(ServerRequest request) {
         String messageId = getMessageId(request);
-        return request.bodyToMono(CapacityDTO.class)
+        return observed("create", messageId, request.bodyToMono(CapacityDTO.class)
                 .flatMap(capacity -> capacityServicePort.registerCapacity(
-                        capacityMapper.capacityDTOToCapacity(capacity), messageId)
-                        .doOnSuccess(savedCapacity -> log.info("Capacity created successfully with messageId: {}", messageId))
-                )
+                        capacityMapper.capacityDTOToCapacity(capacity), messageId))
                 .flatMap(savedCapacity -> ServerResponse.status(HttpStatus.CREATED)
                         .bodyValue(TechnicalMessage.TECHNOLOGY_CREATED.getMessage()))
                 .contextWrite(Context.of(X_MESSAGE_ID, messageId))
-                .doOnError(ex -> log.error(TECHNOLOGY_ERROR, ex))
                 .onErrorResume(BusinessException.class, ex -> handleBusinessException(ex, messageId))
                 .onErrorResume(TechnicalException.class, ex -> handleTechnicalException(ex, messageId))
-                .onErrorResume(ex -> handleUnexpectedException(ex, messageId));
+                .onErrorResume(ex -> handleUnexpectedException(ex, messageId)));
+    }
+
+    public Mono<ServerResponse> importCapacities(ServerRequest request) {
+        String messageId = getMessageId(request);
+        Flux<CapacityImportResultDTO> results = capacityServicePort.importCapacities(
+                        request.bodyToFlux(CapacityDTO.class).map(capacityMapper::capacityDTOToCapacity), messageId)
+                .map(result -> CapacityImportResultDTO.builder()
+                        .line(result.line())
+                        .name(result.name())
+                        .id(result.id())
+                        .status(result.isCreated() ? IMPORT_CREATED : IMPORT_REJECTED)
+                        .error(result.isCreated() ? null : buildErrorDTO(result.error()))
+                        .build())
+                .contextWrite(Context.of(X_MESSAGE_ID, messageId))
+                .doOnComplete(() -> log.debug("Capacities imported with messageId: {}", messageId))
+                // El body ya está en curso: este es el único punto donde se puede registrar el error
+                .doOnError(ex -> logError("import", messageId, ex));
+
+        return observed("import", messageId, ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(results, CapacityImportResultDTO.class));
     }
 
     public Mono<ServerResponse> checkCapacitiesExist(ServerRequest request) {
         String messageId = getMessageId(request);
-        return request.bodyToMono(CapacityIdsRequest.class)
-                .flatMap(idsRequest -> {
-                    List<Long> ids = idsRequest.getIds() != null ? idsRequest.getIds() : List.of();
-                    return capacityServicePort.checkCapacitiesExist(ids, messageId)
-                            .doOnSuccess(result -> log.info("Capacities existence checked successfully with messageId: {}", messageId));
+        String view = request.queryParam("view").map(String::toLowerCase).orElse(EXISTENCE_VIEW_MAP);
+        if (!EXISTENCE_VIEWS.contains(view)) {
+            return observed("check_exists", messageId, handleBusinessException(new BusinessException(TechnicalMessage.INVALID_PARAMETERS), messageId));
+        }
+
+        return observed("check_exists", messageId, request.bodyToMono(CapacityIdsRequest.class)
+                .flatMap(idsRequest -> capacityServicePort.checkCapacitiesExist(
+                        idsRequest.getIds() != null ? idsRequest.getIds() : List.of(), messageId))
+                .flatMap(result -> switch (view) {
+                    // Solo los ids que no existen, escritos como arreglo JSON a medida que se recorren
+                    case EXISTENCE_VIEW_MISSING -> ServerResponse.status(HttpStatus.OK)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .body(Flux.fromStream(Arrays.stream(result.missingIds()).boxed()), Long.class);
+                    // Bit i = i-ésimo id distinto solicitado, en orden ascendente
+                    case EXISTENCE_VIEW_BITMAP -> ServerResponse.status(HttpStatus.OK)
+                            .bodyValue(CapacityExistenceBitmapDTO.builder()
+                                    .size(result.size())
+                                    .present(result.presentCount())
+                                    .bitmap(Base64.getEncoder().encodeToString(result.presenceBitmap()))
+                                    .build());
+                    default -> ServerResponse.status(HttpStatus.OK).bodyValue(result);
                 })
-                .flatMap(result -> ServerResponse.status(HttpStatus.OK).bodyValue(result))
                 .contextWrite(Context.of(X_MESSAGE_ID, messageId))
-                .doOnError(ex -> log.error("Error checking technologies existence for messageId: {}", messageId, ex))
+                .onErrorResume(BusinessException.class, ex -> handleBusinessException(ex, messageId))
                 .onErrorResume(TechnicalException.class, ex -> handleTechnicalException(ex, messageId))
-                .onErrorResume(ex -> handleUnexpectedException(ex, messageId));
+                .onErrorResume(ex -> handleUnexpectedException(ex, messageId)));
     }
 
     public Mono<ServerResponse> listCapacities(ServerRequest request) {
         String messageId = getMessageId(request);
 
+        return observed("list", messageId, Mono.fromCallable(() -> toPaginationRequest(request))
+                .flatMap(paginationRequest -> {
+                    CapacityPageCache.PageKey key = CapacityPageCache.PageKey.of(paginationRequest);
+                    if (key == null) {
+                        return listPage(paginationRequest, messageId)
+                                .flatMap(pageResponse -> isPartial(pageResponse)
+                                        ? partialPageResponse(pageResponse, messageId)
+                                        : ServerResponse.ok().bodyValue(pageResponse));
+                    }
+                    // Página vigente en caché: ni base de datos ni servicio de tecnologías ni serialización
+                    CapacityPageCache.CachedPage cached = capacityPageCache.get(key);
+                    if (cached != null) {
+                        return cachedPageResponse(request, cached);
+                    }
+                    long version = capacityPageCache.currentVersion();
+                    return listPage(paginationRequest, messageId)
+                            .flatMap(pageResponse -> isPartial(pageResponse)
+                                    // Una página degradada no se cachea ni se valida con ETag
+                                    ? partialPageResponse(pageResponse, messageId)
+                                    : Mono.fromCallable(() -> capacityPageCache.put(
+                                                    key, objectMapper.writeValueAsBytes(pageResponse), version))
+                                            .flatMap(page -> cachedPageResponse(request, page)));
+                })
+                .contextWrite(Context.of(X_MESSAGE_ID, messageId))
+                .onErrorResume(BusinessException.class, ex -> handleBusinessException(ex, messageId))
+                .onErrorResume(TechnicalException.class, ex -> handleTechnicalException(ex, messageId))
+                .onErrorResume(ex -> handleUnexpectedException(ex, messageId)));
+    }
+
+    public Mono<ServerResponse> streamCapacities(ServerRequest request) {
+        String messageId = getMessageId(request);
+        boolean export = request.queryParam("export").map(Boolean::parseBoolean).orElse(false);
+        boolean serverSentEvents = request.headers().accept().contains(MediaType.TEXT_EVENT_STREAM);
+
+        return observed("stream", messageId, Mono.fromCallable(() -> toPaginationRequest(request))
+                .map(paginationRequest -> export
+                        ? capacityServicePort.exportCapacities(
+                                paginationRequest.sortBy(), paginationRequest.sortDirection(), messageId)
+                        : capacityServicePort.streamCapacities(paginationRequest, messageId))
+                .flatMap(pageStream -> {
+                    // Cada capacidad se emite en cuanto se enriquece; la metadata de la página va al final
+                    Flux<CapacityWithTechnologiesDTO> content = pageStream.content()
+                            .map(capacityMapper::toCapacityWithTechnologiesDTO)
+                            .contextWrite(Context.of(X_MESSAGE_ID, messageId))
+                            .doOnError(ex -> logError("stream", messageId, ex));
+                    Mono<PageResponse<CapacityWithTechnologiesDTO>> trailer = pageStream.metadata()
+                            .map(pageResult -> toPageResponse(pageResult, null))
+                            .doOnSuccess(response -> log.debug("Capacities streamed successfully with messageId: {}", messageId));
+
+                    if (serverSentEvents) {
+                        Flux<ServerSentEvent<Object>> events = Flux.concat(
+                                content.map(capacity -> ServerSentEvent.<Object>builder(capacity).event("capacity").build()),
+                                trailer.map(page -> ServerSentEvent.<Object>builder(page).event("page").build()));
+                        return ServerResponse.ok()
+                                .contentType(MediaType.TEXT_EVENT_STREAM)
+                                .body(BodyInserters.fromServerSentEvents(events));
+                    }
+                    return ServerResponse.ok()
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .body(Flux.<Object>concat(content, trailer), Object.class);
+                })
+                .onErrorResume(BusinessException.class, ex -> handleBusinessException(ex, messageId))
+                .onErrorResume(ex -> handleUnexpectedException(ex, messageId)));
+    }
+
+    private Mono<PageResponse<CapacityWithTechnologiesDTO>> listPage(PaginationRequest paginationRequest,
+                                                                     String messageId) {
+        return capacityServicePort.listCapacities(paginationRequest, messageId)
+                .map(pageResult -> toPageResponse(pageResult, pageResult.content().stream()
+                        .map(capacityMapper::toCapacityWithTechnologiesDTO)
+                        .toList()));
+    }
+
+    private boolean isPartial(PageResponse<CapacityWithTechnologiesDTO> pageResponse) {
+        return pageResponse.getContent().stream().anyMatch(CapacityWithTechnologiesDTO::isPartial);
+    }
+
+    /**
+     * El fallo del servicio de tecnologías se absorbe en el caso de uso; este es su único registro.
+     */
+    private Mono<ServerResponse> partialPageResponse(PageResponse<CapacityWithTechnologiesDTO> pageResponse,
+                                                     String messageId) {
+        log.atWarn()
+                .addKeyValue("messageId", messageId)
+                .addKeyValue("partial", pageResponse.getContent().stream()
+                        .filter(CapacityWithTechnologiesDTO::isPartial)
+                        .count())
+                .log("Capacity page served without technologies");
+        return ServerResponse.ok().bodyValue(pageResponse);
+    }
+
+    private Mono<ServerResponse> cachedPageResponse(ServerRequest request, CapacityPageCache.CachedPage page) {
+        // If-None-Match con el mismo ETag responde 304 sin body
+        return request.checkNotModified(page.eTag())
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .eTag(page.eTag())
+                        .cacheControl(CacheControl.noCache())
+                        .bodyValue(page.body())));
+    }
+
+    private PaginationRequest toPaginationRequest(ServerRequest request) {
         // Extraer parámetros de query
         int page = request.queryParam("page")
                 .map(Integer::parseInt)
@@ -85,45 +250,51 @@ public class CapacityHandlerImpl {
                 .map(String::toUpperCase)
                 .map(PaginationRequest.SortDirection::valueOf)
                 .orElse(PaginationRequest.SortDirection.ASC);
+        PageCursor cursor = request.queryParam("cursor")
+                .filter(token -> !token.isBlank())
+                .map(PageCursor::decode)
+                .orElse(null);
+        PaginationRequest.CountMode countMode = request.queryParam("countMode")
+                .map(String::toUpperCase)
+                .map(PaginationRequest.CountMode::valueOf)
+                .orElse(null);
 
-        PaginationRequest paginationRequest = new PaginationRequest(page, size, sortBy, sortDirection);
+        return new PaginationRequest(page, size, sortBy, sortDirection, cursor, countMode);
+    }
 
-        return capacityServicePort.listCapacities(paginationRequest, messageId)
-                .map(pageResult -> {
-                    // Mapear de dominio a DTO
-                    List<CapacityWithTechnologiesDTO> content = pageResult.content().stream()
-                            .map(capacity -> CapacityWithTechnologiesDTO.builder()
-                                    .id(capacity.id())
-                                    .name(capacity.name())
-                                    .description(capacity.description())
-                                    .technologies(capacity.technologies().stream()
-                                            .map(tech -> TechnologySummaryDTO.builder()
-                                                    .id(tech.id())
-                                                    .name(tech.name())
-                                                    .build())
-                                            .toList())
-                                    .build())
-                            .toList();
-
-                    return PageResponse.<CapacityWithTechnologiesDTO>builder()
-                            .content(content)
-                            .page(pageResult.page())
-                            .size(pageResult.size())
-                            .totalElements(pageResult.totalElements())
-                            .totalPages(pageResult.totalPages())
-                            .first(pageResult.first())
-                            .last(pageResult.last())
-                            .build();
-                })
-                .flatMap(pageResponse -> ServerResponse.ok().bodyValue(pageResponse))
-                .contextWrite(Context.of(X_MESSAGE_ID, messageId))
-                .doOnSuccess(response -> log.info("Capacities listed successfully with messageId: {}", messageId))
-                .doOnError(ex -> log.error("Error listing capacities for messageId: {}", messageId, ex))
-                .onErrorResume(TechnicalException.class, ex -> handleTechnicalException(ex, messageId))
-                .onErrorResume(ex -> handleUnexpectedException(ex, messageId));
+    private PageResponse<CapacityWithTechnologiesDTO> toPageResponse(Page<CapacityWithTechnologies> pageResult,
+                                                                     List<CapacityWithTechnologiesDTO> content) {
+        return PageResponse.<CapacityWithTechnologiesDTO>builder()
+                .content(content)
+                .page(pageResult.page())
+                .size(pageResult.size())
+                .totalElements(pageResult.totalElements())
+                .totalExact(pageResult.totalExact())
+                .totalPages(pageResult.totalPages())
+                .first(pageResult.first())
+                .last(pageResult.last())
+                .nextCursor(pageResult.nextCursor())
+                .build();
+    }
+
+    private Mono<ServerResponse> observed(String endpoint, String messageId, Mono<ServerResponse> response) {
+        // Tiempo hasta tener la respuesta armada; en streaming no incluye la escritura del body
+        return stageObservations.observe(HTTP_OBSERVATION, KeyValues.of("endpoint", endpoint),
+                requestLog.log(endpoint, messageId, response),
+                serverResponse -> {
+                    HttpStatusCode status = serverResponse.statusCode();
+                    if (status.is2xxSuccessful() || status.isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                        return StageObservations.OUTCOME_SUCCESS;
+                    }
+                    return status.is4xxClientError() ? "client_error" : "server_error";
+                });
     }
 
     private Mono<ServerResponse> handleBusinessException(BusinessException ex, String messageId) {
+        log.atDebug()
+                .addKeyValue("messageId", messageId)
+                .addKeyValue("code", ex.getTechnicalMessage().getCode())
+                .log("Request rejected: {}", ex.getTechnicalMessage().getMessage());
         return buildErrorResponse(
                 HttpStatus.BAD_REQUEST,
                 messageId,
@@ -132,6 +303,7 @@ public class CapacityHandlerImpl {
     }
 
     private Mono<ServerResponse> handleTechnicalException(TechnicalException ex, String messageId) {
+        logError("technical", messageId, ex);
         return buildErrorResponse(
                 HttpStatus.INTERNAL_SERVER_ERROR,
                 messageId,
@@ -140,7 +312,7 @@ public class CapacityHandlerImpl {
     }
 
     private Mono<ServerResponse> handleUnexpectedException(Throwable ex, String messageId) {
-        log.error("Unexpected error occurred for messageId: {}", messageId, ex);
+        logError("unexpected", messageId, ex);
         return buildErrorResponse(
                 HttpStatus.INTERNAL_SERVER_ERROR,
                 messageId,
@@ -151,6 +323,17 @@ public class CapacityHandlerImpl {
                         .build()));
     }
 
+    /**
+     * Único registro del error por request: los flujos ya no loguean en doOnError antes de llegar aquí.
+     */
+    private void logError(String kind, String messageId, Throwable ex) {
+        log.atError()
+                .setCause(ex)
+                .addKeyValue("messageId", messageId)
+                .addKeyValue("error", kind)
+                .log("Error processing capacity request");
+    }
+
     private ErrorDTO buildErrorDTO(TechnicalMessage technicalMessage) {
         return ErrorDTO.builder()
                 .code(technicalMessage.getCode())
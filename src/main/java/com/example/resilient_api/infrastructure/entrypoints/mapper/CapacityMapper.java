@@ -1,11 +1,18 @@
 package com.example.resilient_api.infrastructure.entrypoints.mapper;
 
 import com.example.resilient_api.domain.model.Capacity;
+import com.example.resilient_api.domain.model.CapacityWithTechnologies;
+import com.example.resilient_api.domain.model.TechnologySummary;
 import com.example.resilient_api.infrastructure.entrypoints.dto.CapacityDTO;
+import com.example.resilient_api.infrastructure.entrypoints.dto.CapacityWithTechnologiesDTO;
+import com.example.resilient_api.infrastructure.entrypoints.dto.TechnologySummaryDTO;
 import org.mapstruct.Mapper;
 
 @Mapper(componentModel = "spring")
 public interface CapacityMapper {
     Capacity capacityDTOToCapacity(CapacityDTO capacityDTO);
-}
 
+    CapacityWithTechnologiesDTO toCapacityWithTechnologiesDTO(CapacityWithTechnologies capacity);
+
+    TechnologySummaryDTO toTechnologySummaryDTO(TechnologySummary technology);
+}
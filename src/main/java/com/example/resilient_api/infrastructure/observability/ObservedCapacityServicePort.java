@@ -0,0 +1,94 @@
+package com.example.resilient_api.infrastructure.observability;
+
+import com.example.resilient_api.domain.api.CapacityServicePort;
+import com.example.resilient_api.domain.model.Capacity;
+import com.example.resilient_api.domain.model.CapacityImportResult;
+import com.example.resilient_api.domain.model.CapacityWithTechnologies;
+import com.example.resilient_api.domain.model.IdExistence;
+import com.example.resilient_api.domain.model.Page;
+import com.example.resilient_api.domain.model.PageStream;
+import com.example.resilient_api.domain.model.PaginationRequest;
+import io.micrometer.common.KeyValues;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Mide cada caso de uso como capacity.usecase sin que el dominio dependa de Micrometer. Todas las series llevan
+ * operation, sort, page.size y pagination; los que no aplican van como "none".
+ */
+public class ObservedCapacityServicePort implements CapacityServicePort {
+
+    private static final String OBSERVATION = "capacity.usecase";
+
+    private final CapacityServicePort delegate;
+    private final StageObservations observations;
+
+    public ObservedCapacityServicePort(CapacityServicePort delegate, StageObservations observations) {
+        this.delegate = delegate;
+        this.observations = observations;
+    }
+
+    @Override
+    public Mono<Capacity> registerCapacity(Capacity capacity, String messageId) {
+        return observations.observe(OBSERVATION, operation("register"),
+                delegate.registerCapacity(capacity, messageId));
+    }
+
+    @Override
+    public Flux<CapacityImportResult> importCapacities(Flux<Capacity> capacities, String messageId) {
+        return observations.observe(OBSERVATION, operation("import"),
+                delegate.importCapacities(capacities, messageId));
+    }
+
+    @Override
+    public Mono<IdExistence> checkCapacitiesExist(List<Long> ids, String messageId) {
+        return observations.observe(OBSERVATION, operation("check_exists"),
+                delegate.checkCapacitiesExist(ids, messageId));
+    }
+
+    @Override
+    public Mono<Page<CapacityWithTechnologies>> listCapacities(PaginationRequest paginationRequest, String messageId) {
+        return observations.observe(OBSERVATION, listing("list", paginationRequest),
+                delegate.listCapacities(paginationRequest, messageId));
+    }
+
+    @Override
+    public PageStream<CapacityWithTechnologies> streamCapacities(PaginationRequest paginationRequest, String messageId) {
+        PageStream<CapacityWithTechnologies> stream = delegate.streamCapacities(paginationRequest, messageId);
+        return new PageStream<>(
+                observations.observe(OBSERVATION, listing("stream", paginationRequest), stream.content()),
+                stream.metadata());
+    }
+
+    @Override
+    public PageStream<CapacityWithTechnologies> exportCapacities(PaginationRequest.SortField sortBy,
+                                                                 PaginationRequest.SortDirection sortDirection,
+                                                                 String messageId) {
+        PageStream<CapacityWithTechnologies> stream = delegate.exportCapacities(sortBy, sortDirection, messageId);
+        return new PageStream<>(
+                observations.observe(OBSERVATION, tags("export", sortBy.name(),
+                        StageObservations.NOT_APPLICABLE, StageObservations.NOT_APPLICABLE), stream.content()),
+                stream.metadata());
+    }
+
+    private static KeyValues operation(String operation) {
+        return tags(operation, StageObservations.NOT_APPLICABLE, StageObservations.NOT_APPLICABLE,
+                StageObservations.NOT_APPLICABLE);
+    }
+
+    private static KeyValues listing(String operation, PaginationRequest paginationRequest) {
+        return tags(operation, paginationRequest.sortBy().name(),
+                StageObservations.pageSizeBucket(paginationRequest.size()),
+                paginationRequest.isKeyset() ? "keyset" : "offset");
+    }
+
+    private static KeyValues tags(String operation, String sort, String pageSize, String pagination) {
+        return KeyValues.of(
+                "operation", operation,
+                "sort", sort,
+                "page.size", pageSize,
+                "pagination", pagination);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.resilient_api.infrastructure.observability;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Una línea estructurada por request (messageId, route, status, latencyMs) en lugar de varios INFO por etapa.
+ * Con DEBUG activo se registran todas; si no, solo una muestra según successSampleRate.
+ */
+@Slf4j(topic = "com.example.resilient_api.request")
+public class RequestLog {
+
+    private final double successSampleRate;
+
+    public RequestLog(double successSampleRate) {
+        this.successSampleRate = Math.clamp(successSampleRate, 0.0, 1.0);
+    }
+
+    public Mono<ServerResponse> log(String route, String messageId, Mono<ServerResponse> response) {
+        return Mono.defer(() -> {
+            long startedAt = System.nanoTime();
+            return response.doOnSuccess(serverResponse -> {
+                if (serverResponse != null) {
+                    completed(route, messageId, serverResponse, startedAt);
+                }
+            });
+        });
+    }
+
+    private void completed(String route, String messageId, ServerResponse serverResponse, long startedAt) {
+        boolean debug = log.isDebugEnabled();
+        if (!debug && !sampled()) {
+            return;
+        }
+        // Los errores ya quedan registrados una vez por el handler; aquí solo el resumen del request
+        (debug ? log.atDebug() : log.atInfo())
+                .addKeyValue("messageId", messageId)
+                .addKeyValue("route", route)
+                .addKeyValue("status", serverResponse.statusCode().value())
+                .addKeyValue("latencyMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt))
+                .log("request completed");
+    }
+
+    private boolean sampled() {
+        return successSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < successSampleRate;
+    }
+}
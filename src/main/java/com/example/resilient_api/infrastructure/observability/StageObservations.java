@@ -0,0 +1,89 @@
+package com.example.resilient_api.infrastructure.observability;
+
+import io.micrometer.common.KeyValues;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.function.Function;
+
+/**
+ * Observaciones por etapa con tags de baja cardinalidad; el tag outcome se fija al terminar la señal.
+ */
+public class StageObservations {
+
+    public static final String OUTCOME = "outcome";
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_ERROR = "error";
+    public static final String OUTCOME_CANCELLED = "cancelled";
+    // Prometheus exige el mismo conjunto de tags en todas las series de un nombre: los que no aplican llevan "none"
+    public static final String NOT_APPLICABLE = "none";
+
+    private final ObservationRegistry observationRegistry;
+
+    public StageObservations(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    public <T> Mono<T> observe(String name, KeyValues keyValues, Mono<T> source) {
+        return observe(name, keyValues, source, value -> OUTCOME_SUCCESS);
+    }
+
+    public <T> Mono<T> observe(String name, KeyValues keyValues, Mono<T> source, Function<T, String> outcome) {
+        return Mono.deferContextual(contextView -> {
+            Observation observation = start(name, keyValues, contextView);
+            return source
+                    .doOnSuccess(value -> observation.lowCardinalityKeyValue(OUTCOME,
+                            value != null ? outcome.apply(value) : OUTCOME_SUCCESS))
+                    .doOnError(error -> fail(observation, error))
+                    .doOnCancel(() -> observation.lowCardinalityKeyValue(OUTCOME, OUTCOME_CANCELLED))
+                    .doFinally(signal -> observation.stop())
+                    .contextWrite(context -> context.put(ObservationThreadLocalAccessor.KEY, observation));
+        });
+    }
+
+    public <T> Flux<T> observe(String name, KeyValues keyValues, Flux<T> source) {
+        return Flux.deferContextual(contextView -> {
+            Observation observation = start(name, keyValues, contextView);
+            return source
+                    .doOnComplete(() -> observation.lowCardinalityKeyValue(OUTCOME, OUTCOME_SUCCESS))
+                    .doOnError(error -> fail(observation, error))
+                    .doOnCancel(() -> observation.lowCardinalityKeyValue(OUTCOME, OUTCOME_CANCELLED))
+                    .doFinally(signal -> observation.stop())
+                    .contextWrite(context -> context.put(ObservationThreadLocalAccessor.KEY, observation));
+        });
+    }
+
+    /**
+     * Agrupa el tamaño de página en rangos fijos para no generar una serie por cada valor.
+     */
+    public static String pageSizeBucket(int size) {
+        if (size <= 10) {
+            return "1-10";
+        }
+        if (size <= 25) {
+            return "11-25";
+        }
+        if (size <= 50) {
+            return "26-50";
+        }
+        return "51-100";
+    }
+
+    private Observation start(String name, KeyValues keyValues, ContextView contextView) {
+        // La etapa anterior (handler, caso de uso) queda como padre para que las trazas se aniden
+        Observation parent = contextView.getOrDefault(ObservationThreadLocalAccessor.KEY, null);
+        return Observation.createNotStarted(name, observationRegistry)
+                .parentObservation(parent)
+                .lowCardinalityKeyValues(keyValues)
+                .start();
+    }
+
+    private void fail(Observation observation, Throwable error) {
+        observation.lowCardinalityKeyValue(OUTCOME, OUTCOME_ERROR);
+        observation.error(error);
+    }
+}
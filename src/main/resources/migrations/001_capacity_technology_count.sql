@@ -0,0 +1,19 @@
+-- Conteo de tecnologías desnormalizado en capacity para ordenar sin agregar capacity_technology
+ALTER TABLE capacity ADD COLUMN IF NOT EXISTS technology_count INT NOT NULL DEFAULT 0;
+
+UPDATE capacity c
+SET technology_count = counts.total
+FROM (
+    SELECT capacity_id, COUNT(*) AS total
+    FROM capacity_technology
+    GROUP BY capacity_id
+) counts
+WHERE counts.capacity_id = c.id
+  AND c.technology_count <> counts.total
+  -- Condición sin correlación: Postgres la evalúa una vez y, ya aplicada, no recorre ninguna tabla
+  AND NOT EXISTS (SELECT 1 FROM capacity_migration WHERE version = '001_capacity_technology_count');
+
+INSERT INTO capacity_migration (version) VALUES ('001_capacity_technology_count') ON CONFLICT (version) DO NOTHING;
+
+CREATE INDEX IF NOT EXISTS idx_capacity_technology_count_name_id ON capacity (technology_count, name, id);
+CREATE INDEX IF NOT EXISTS idx_capacity_name_id ON capacity (name, id);
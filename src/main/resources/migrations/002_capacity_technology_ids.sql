@@ -0,0 +1,16 @@
+-- Ids de tecnologías desnormalizados en capacity para que el listado obtenga cada página completa en una sola consulta
+ALTER TABLE capacity ADD COLUMN IF NOT EXISTS technology_ids BIGINT[] NOT NULL DEFAULT '{}';
+
+UPDATE capacity c
+SET technology_ids = links.technology_ids
+FROM (
+    SELECT capacity_id, array_agg(technology_id ORDER BY id) AS technology_ids
+    FROM capacity_technology
+    GROUP BY capacity_id
+) links
+WHERE links.capacity_id = c.id
+  AND c.technology_ids <> links.technology_ids
+  -- Se registra en capacity_migration: en los arranques siguientes no se agrega capacity_technology
+  AND NOT EXISTS (SELECT 1 FROM capacity_migration WHERE version = '002_capacity_technology_ids');
+
+INSERT INTO capacity_migration (version) VALUES ('002_capacity_technology_ids') ON CONFLICT (version) DO NOTHING;
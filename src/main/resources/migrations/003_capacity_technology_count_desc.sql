@@ -0,0 +1,3 @@
+-- Orden por technology_count DESC con desempate name ASC, id ASC: el índice ascendente no sirve
+-- recorrido hacia atrás porque las direcciones se mezclan
+CREATE INDEX IF NOT EXISTS idx_capacity_technology_count_desc_name_id ON capacity (technology_count DESC, name, id);
@@ -1,7 +1,9 @@
 CREATE TABLE IF NOT EXISTS capacity (
     id BIGSERIAL PRIMARY KEY,
     name VARCHAR(50) NOT NULL UNIQUE,
-    description VARCHAR(90) NOT NULL
+    description VARCHAR(90) NOT NULL,
+    technology_count INT NOT NULL DEFAULT 0,
+    technology_ids BIGINT[] NOT NULL DEFAULT '{}'
 );
 
 CREATE TABLE IF NOT EXISTS capacity_technology (
@@ -12,5 +14,9 @@ CREATE TABLE IF NOT EXISTS capacity_technology (
     CONSTRAINT uk_capacity_technology UNIQUE (capacity_id, technology_id)
 );
 
-
-
+-- Migraciones de datos ya aplicadas: cada backfill de migrations/ corre una sola vez aunque los scripts se
+-- ejecuten en cada arranque
+CREATE TABLE IF NOT EXISTS capacity_migration (
+    version VARCHAR(100) PRIMARY KEY,
+    applied_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
@@ -1,21 +1,15 @@
 package com.example.resilient_api;
 
-import com.example.resilient_api.domain.spi.UserPersistencePort;
-import com.example.resilient_api.domain.usecase.UserUseCase;
 import org.junit.jupiter.api.Test;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.boot.test.mock.mockito.MockBean;
 
-@SpringBootTest(classes = ResilientApiApplication.class)
+// Sin base de datos: no se ejecutan los scripts de esquema ni se abre la conexión de LISTEN
+@SpringBootTest(classes = ResilientApiApplication.class, properties = {
+		"spring.sql.init.mode=never",
+		"capacity.catalogue.notifications.enabled=false"
+})
 class ResilientApiApplicationTests {
 
-	@MockBean
-	private UserPersistencePort userPersistencePort;
-
-	@Autowired
-	private UserUseCase userUseCase;
-
 	@Test
 	void contextLoads() {
 	}
@@ -0,0 +1,59 @@
+package com.example.resilient_api.application.config;
+
+import com.example.resilient_api.domain.model.IdExistence;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdExistenceJsonComponentTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new SimpleModule()
+            .addSerializer(IdExistence.class, new IdExistenceJsonComponent.Serializer())
+            .addDeserializer(IdExistence.class, new IdExistenceJsonComponent.Deserializer()));
+
+    @Test
+    void writesTheIdToPresenceObject() throws Exception {
+        IdExistence existence = IdExistence.builder()
+                .add(5L, true)
+                .add(1L, false)
+                .build();
+
+        assertThat(objectMapper.writeValueAsString(existence)).isEqualTo("{\"1\":false,\"5\":true}");
+    }
+
+    @Test
+    void roundTripKeepsIdsAndPresence() throws Exception {
+        IdExistence existence = IdExistence.builder()
+                .add(1L, true)
+                .add(2L, false)
+                .add(3L, true)
+                .build();
+
+        IdExistence read = objectMapper.readValue(objectMapper.writeValueAsBytes(existence), IdExistence.class);
+
+        assertThat(read.size()).isEqualTo(3);
+        assertThat(read.isPresent(1L)).isTrue();
+        assertThat(read.isPresent(3L)).isTrue();
+        assertThat(read.missingIds()).containsExactly(2L);
+    }
+
+    @Test
+    void valuesOtherThanTrueReadAsMissing() throws Exception {
+        IdExistence read = objectMapper.readValue(
+                "{\"1\":null,\"2\":\"true\",\"3\":{\"present\":true},\"4\":true}", IdExistence.class);
+
+        assertThat(read.size()).isEqualTo(4);
+        assertThat(read.missingIds()).containsExactly(1L, 2L, 3L);
+        assertThat(read.isPresent(4L)).isTrue();
+    }
+
+    @Test
+    void rejectsNonNumericIds() {
+        assertThatThrownBy(() -> objectMapper.readValue("{\"java\":true}", IdExistence.class))
+                .isInstanceOf(JsonMappingException.class);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.resilient_api.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdExistenceTest {
+
+    @Test
+    void requestedIdsStartMissingAndAreMarkedPresent() {
+        IdExistence existence = IdExistence.requested(List.of(30L, 10L, 20L))
+                .markPresent(20L)
+                .build();
+
+        assertThat(existence.size()).isEqualTo(3);
+        assertThat(existence.presentCount()).isEqualTo(1);
+        assertThat(existence.isPresent(20L)).isTrue();
+        assertThat(existence.isPresent(10L)).isFalse();
+        assertThat(existence.isPresent(99L)).isFalse();
+        assertThat(existence.missingIds()).containsExactly(10L, 30L);
+    }
+
+    @Test
+    void repeatedIdsCollapseAndArePresentIfAnyEntryIs() {
+        IdExistence existence = IdExistence.builder()
+                .add(5L, false)
+                .add(3L, false)
+                .add(5L, true)
+                .add(3L, false)
+                .build();
+
+        assertThat(existence.size()).isEqualTo(2);
+        assertThat(existence.idAt(0)).isEqualTo(3L);
+        assertThat(existence.idAt(1)).isEqualTo(5L);
+        assertThat(existence.presentAt(0)).isFalse();
+        assertThat(existence.presentAt(1)).isTrue();
+    }
+
+    @Test
+    void presenceBitmapFollowsAscendingIdOrder() {
+        IdExistence.Builder builder = IdExistence.builder();
+        for (long id = 1; id <= 9; id++) {
+            builder.add(id, id == 1 || id == 9);
+        }
+
+        assertThat(builder.build().presenceBitmap()).containsExactly(0x01, 0x01);
+    }
+
+    @Test
+    void allPresentTreatsNullAndUncheckedIdsAsMissing() {
+        IdExistence existence = IdExistence.builder()
+                .markPresent(1L)
+                .markPresent(2L)
+                .build();
+
+        assertThat(existence.allPresent()).isTrue();
+        assertThat(existence.allPresent(List.of(1L, 2L))).isTrue();
+        assertThat(existence.allPresent(List.of(1L, 3L))).isFalse();
+        assertThat(existence.allPresent(Arrays.asList(1L, null))).isFalse();
+    }
+
+    @Test
+    void mergeCombinesBothResults() {
+        IdExistence first = IdExistence.builder().add(1L, true).add(2L, false).build();
+        IdExistence second = IdExistence.builder().add(2L, true).add(3L, false).build();
+
+        IdExistence merged = first.merge(second);
+
+        assertThat(merged.size()).isEqualTo(3);
+        assertThat(merged.isPresent(1L)).isTrue();
+        assertThat(merged.isPresent(2L)).isTrue();
+        assertThat(merged.missingIds()).containsExactly(3L);
+        assertThat(first.merge(IdExistence.empty())).isSameAs(first);
+        assertThat(IdExistence.empty().merge(second)).isSameAs(second);
+    }
+
+    @Test
+    void emptyBuilderBuildsTheSharedEmptyResult() {
+        assertThat(IdExistence.builder().build()).isSameAs(IdExistence.empty());
+        assertThat(IdExistence.empty().missingIds()).isEmpty();
+        assertThat(IdExistence.empty().presenceBitmap()).isEmpty();
+    }
+}
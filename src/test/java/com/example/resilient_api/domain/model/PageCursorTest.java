@@ -0,0 +1,58 @@
+package com.example.resilient_api.domain.model;
+
+import com.example.resilient_api.domain.enums.TechnicalMessage;
+import com.example.resilient_api.domain.exceptions.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageCursorTest {
+
+    @Test
+    void encodedCursorDecodesToTheSameValues() {
+        PageCursor cursor = new PageCursor(PaginationRequest.SortField.TECHNOLOGY_COUNT,
+                PaginationRequest.SortDirection.DESC, 7, 42L, "Diseño | UX");
+
+        String token = cursor.encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+        assertThat(PageCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void matchesOnlyTheOrderItWasIssuedFor() {
+        PageCursor cursor = new PageCursor(PaginationRequest.SortField.NAME,
+                PaginationRequest.SortDirection.ASC, 0, 1L, "Backend");
+
+        assertThat(cursor.matches(PaginationRequest.SortField.NAME, PaginationRequest.SortDirection.ASC)).isTrue();
+        assertThat(cursor.matches(PaginationRequest.SortField.NAME, PaginationRequest.SortDirection.DESC)).isFalse();
+        assertThat(cursor.matches(PaginationRequest.SortField.TECHNOLOGY_COUNT,
+                PaginationRequest.SortDirection.ASC)).isFalse();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"NAME|ASC|0|1", "SIZE|ASC|0|1|Backend", "NAME|UP|0|1|Backend", "NAME|ASC|x|1|Backend"})
+    void malformedCursorsAreInvalid(String raw) {
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+
+        assertInvalidCursor(token);
+    }
+
+    @Test
+    void tokensThatAreNotBase64AreInvalid() {
+        assertInvalidCursor("not a cursor!");
+    }
+
+    private static void assertInvalidCursor(String token) {
+        assertThatThrownBy(() -> PageCursor.decode(token))
+                .isInstanceOf(BusinessException.class)
+                .extracting(ex -> ((BusinessException) ex).getTechnicalMessage())
+                .isEqualTo(TechnicalMessage.INVALID_CURSOR);
+    }
+}
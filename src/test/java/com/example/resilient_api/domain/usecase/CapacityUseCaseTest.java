@@ -0,0 +1,105 @@
+package com.example.resilient_api.domain.usecase;
+
+import com.example.resilient_api.domain.enums.TechnicalMessage;
+import com.example.resilient_api.domain.exceptions.BusinessException;
+import com.example.resilient_api.domain.model.Capacity;
+import com.example.resilient_api.domain.model.IdExistence;
+import com.example.resilient_api.domain.model.PageCursor;
+import com.example.resilient_api.domain.model.PaginationRequest;
+import com.example.resilient_api.domain.spi.CapacityPersistencePort;
+import com.example.resilient_api.domain.spi.TechnologyExternalServicePort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CapacityUseCaseTest {
+
+    private static final String MESSAGE_ID = "test-message";
+
+    private CapacityPersistencePort capacityPersistencePort;
+    private TechnologyExternalServicePort technologyExternalServicePort;
+    private CapacityUseCase capacityUseCase;
+
+    @BeforeEach
+    void setUp() {
+        capacityPersistencePort = mock(CapacityPersistencePort.class);
+        technologyExternalServicePort = mock(TechnologyExternalServicePort.class);
+        capacityUseCase = new CapacityUseCase(capacityPersistencePort, technologyExternalServicePort);
+    }
+
+    @Test
+    void registerCapacityMapsAConflictingInsertToAlreadyExistsWithoutProbingTheName() {
+        List<Long> technologyIds = List.of(1L, 2L, 3L);
+        Capacity capacity = new Capacity(null, "Backend", "Backend development", technologyIds);
+        IdExistence.Builder existence = IdExistence.requested(technologyIds);
+        technologyIds.forEach(existence::markPresent);
+        when(technologyExternalServicePort.checkTechnologiesExist(technologyIds, MESSAGE_ID))
+                .thenReturn(Mono.just(existence.build()));
+        // ON CONFLICT (name) DO NOTHING no devuelve fila
+        when(capacityPersistencePort.save(capacity)).thenReturn(Mono.empty());
+
+        StepVerifier.create(capacityUseCase.registerCapacity(capacity, MESSAGE_ID))
+                .expectErrorSatisfies(error -> assertThat(error)
+                        .isInstanceOf(BusinessException.class)
+                        .extracting(ex -> ((BusinessException) ex).getTechnicalMessage())
+                        .isEqualTo(TechnicalMessage.TECHNOLOGY_ALREADY_EXISTS))
+                .verify();
+
+        verify(capacityPersistencePort, never()).existByName(anyString());
+    }
+
+    @Test
+    void checkCapacitiesExistMarksTheIdsFoundInPersistence() {
+        when(capacityPersistencePort.findExistingIdsByIds(List.of(3L, 1L, 2L))).thenReturn(Flux.just(1L, 3L));
+
+        StepVerifier.create(capacityUseCase.checkCapacitiesExist(List.of(3L, 1L, 2L), MESSAGE_ID))
+                .assertNext(existence -> {
+                    assertThat(existence.size()).isEqualTo(3);
+                    assertThat(existence.missingIds()).containsExactly(2L);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void checkCapacitiesExistRejectsNullIds() {
+        StepVerifier.create(capacityUseCase.checkCapacitiesExist(Arrays.asList(1L, null), MESSAGE_ID))
+                .expectErrorSatisfies(error -> assertThat(error)
+                        .isInstanceOf(BusinessException.class)
+                        .extracting(ex -> ((BusinessException) ex).getTechnicalMessage())
+                        .isEqualTo(TechnicalMessage.INVALID_PARAMETERS))
+                .verify();
+
+        verify(capacityPersistencePort, never()).findExistingIdsByIds(anyList());
+    }
+
+    @Test
+    void listCapacitiesRejectsACursorIssuedForAnotherOrder() {
+        PageCursor cursor = new PageCursor(PaginationRequest.SortField.NAME,
+                PaginationRequest.SortDirection.ASC, 0, 1L, "Backend");
+        PaginationRequest paginationRequest = new PaginationRequest(0, 10, PaginationRequest.SortField.TECHNOLOGY_COUNT,
+                PaginationRequest.SortDirection.DESC, cursor, null);
+
+        StepVerifier.create(capacityUseCase.listCapacities(paginationRequest, MESSAGE_ID))
+                .expectErrorSatisfies(error -> assertThat(error)
+                        .isInstanceOf(BusinessException.class)
+                        .extracting(ex -> ((BusinessException) ex).getTechnicalMessage())
+                        .isEqualTo(TechnicalMessage.INVALID_CURSOR))
+                .verify();
+
+        verifyNoInteractions(capacityPersistencePort);
+    }
+}
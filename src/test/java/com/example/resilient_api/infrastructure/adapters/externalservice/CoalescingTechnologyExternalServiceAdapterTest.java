@@ -0,0 +1,147 @@
+package com.example.resilient_api.infrastructure.adapters.externalservice;
+
+import com.example.resilient_api.domain.model.IdExistence;
+import com.example.resilient_api.domain.model.TechnologySummary;
+import com.example.resilient_api.domain.spi.TechnologyExternalServicePort;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CoalescingTechnologyExternalServiceAdapterTest {
+
+    // Ventana larga: los lotes se envían al llenarse, así los tests no dependen de tiempos
+    private static final Duration NEVER = Duration.ofMinutes(1);
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @Test
+    void concurrentLookupsShareOneUpstreamCall() {
+        RecordingTechnologyService upstream = new RecordingTechnologyService(Mono.empty());
+        CoalescingTechnologyExternalServiceAdapter adapter =
+                new CoalescingTechnologyExternalServiceAdapter(upstream, NEVER, 3);
+
+        StepVerifier.create(Mono.zip(
+                        adapter.getTechnologiesByIds(List.of(2L, 1L), "first").collectList(),
+                        adapter.getTechnologiesByIds(List.of(3L, 2L), "second").collectList()))
+                .assertNext(results -> {
+                    assertThat(results.getT1()).extracting(TechnologySummary::id).containsExactly(2L, 1L);
+                    assertThat(results.getT2()).extracting(TechnologySummary::id).containsExactly(3L, 2L);
+                })
+                .expectComplete()
+                .verify(TIMEOUT);
+
+        assertThat(upstream.calls.get()).isEqualTo(1);
+        assertThat(upstream.requests.get(0)).containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    @Test
+    void lookupsArrivingWhileABatchIsInFlightJoinIt() {
+        Sinks.Empty<Void> response = Sinks.empty();
+        RecordingTechnologyService upstream = new RecordingTechnologyService(response.asMono());
+        CoalescingTechnologyExternalServiceAdapter adapter =
+                new CoalescingTechnologyExternalServiceAdapter(upstream, NEVER, 1);
+
+        // El primer pedido llena su lote y se envía; el segundo llega con la respuesta pendiente
+        StepVerifier.create(Flux.merge(
+                        adapter.getTechnologiesByIds(List.of(1L), "first"),
+                        adapter.getTechnologiesByIds(List.of(1L), "second")))
+                .then(() -> assertThat(upstream.calls.get()).isEqualTo(1))
+                .then(response::tryEmitEmpty)
+                .expectNext(new TechnologySummary(1L, "technology-1"), new TechnologySummary(1L, "technology-1"))
+                .expectComplete()
+                .verify(TIMEOUT);
+
+        assertThat(upstream.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void pendingBatchesAreSentWhenTheWindowCloses() {
+        RecordingTechnologyService upstream = new RecordingTechnologyService(Mono.empty());
+        CoalescingTechnologyExternalServiceAdapter adapter =
+                new CoalescingTechnologyExternalServiceAdapter(upstream, Duration.ofMillis(20), 100);
+
+        StepVerifier.create(adapter.getTechnologiesByIds(List.of(1L, 2L), "first"))
+                .expectNextCount(2)
+                .expectComplete()
+                .verify(TIMEOUT);
+
+        assertThat(upstream.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void idsAreReleasedOnceTheResponseArrives() {
+        RecordingTechnologyService upstream = new RecordingTechnologyService(Mono.empty());
+        CoalescingTechnologyExternalServiceAdapter adapter =
+                new CoalescingTechnologyExternalServiceAdapter(upstream, NEVER, 1);
+
+        // No es un caché: pedidos sucesivos vuelven a consultar el servicio
+        StepVerifier.create(adapter.getTechnologiesByIds(List.of(1L), "first")).expectNextCount(1)
+                .expectComplete().verify(TIMEOUT);
+        StepVerifier.create(adapter.getTechnologiesByIds(List.of(1L), "second")).expectNextCount(1)
+                .expectComplete().verify(TIMEOUT);
+
+        assertThat(upstream.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void upstreamErrorsReachEveryCallerInTheBatch() {
+        RecordingTechnologyService upstream = new RecordingTechnologyService(Mono.empty());
+        upstream.failure = new IllegalStateException("technology service down");
+        CoalescingTechnologyExternalServiceAdapter adapter =
+                new CoalescingTechnologyExternalServiceAdapter(upstream, NEVER, 2);
+
+        StepVerifier.create(Mono.zip(
+                        failureMessage(adapter.getTechnologiesByIds(List.of(1L), "first")),
+                        failureMessage(adapter.getTechnologiesByIds(List.of(1L, 2L), "second"))))
+                .assertNext(messages -> {
+                    assertThat(messages.getT1()).isEqualTo("technology service down");
+                    assertThat(messages.getT2()).isEqualTo("technology service down");
+                })
+                .expectComplete()
+                .verify(TIMEOUT);
+
+        assertThat(upstream.calls.get()).isEqualTo(1);
+    }
+
+    private static Mono<String> failureMessage(Flux<TechnologySummary> lookup) {
+        return lookup.then(Mono.just("completed")).onErrorResume(error -> Mono.just(error.getMessage()));
+    }
+
+    private static final class RecordingTechnologyService implements TechnologyExternalServicePort {
+
+        private final Mono<Void> response;
+        private final AtomicInteger calls = new AtomicInteger();
+        private final List<List<Long>> requests = new CopyOnWriteArrayList<>();
+        private volatile RuntimeException failure;
+
+        private RecordingTechnologyService(Mono<Void> response) {
+            this.response = response;
+        }
+
+        @Override
+        public Mono<IdExistence> checkTechnologiesExist(List<Long> technologyIds, String messageId) {
+            return Mono.just(IdExistence.empty());
+        }
+
+        @Override
+        public Flux<TechnologySummary> getTechnologiesByIds(List<Long> technologyIds, String messageId) {
+            calls.incrementAndGet();
+            requests.add(technologyIds);
+            if (failure != null) {
+                return Flux.error(failure);
+            }
+            // Responde cuando se completa response
+            return Flux.fromIterable(technologyIds)
+                    .map(id -> new TechnologySummary(id, "technology-" + id))
+                    .delaySubscription(response);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.resilient_api.infrastructure.adapters.persistenceadapter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CapacityIdIndexTest {
+
+    @Test
+    void isNotReadyUntilTheFirstReloadCompletes() {
+        CapacityIdIndex index = new CapacityIdIndex();
+        index.add(1L);
+
+        assertThat(index.isReady()).isFalse();
+        assertThat(index.loadedAt()).isNull();
+
+        index.beginReload();
+        index.completeReload(new long[]{1L});
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.loadedAt()).isNotNull();
+    }
+
+    @Test
+    void addAllMergesSortedWithoutDuplicates() {
+        CapacityIdIndex index = new CapacityIdIndex();
+        index.addAll(new long[]{5L, 1L, 3L});
+        index.addAll(new long[]{3L, 2L, 5L, 2L});
+
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(index.contains(1L)).isTrue();
+        assertThat(index.contains(2L)).isTrue();
+        assertThat(index.contains(3L)).isTrue();
+        assertThat(index.contains(5L)).isTrue();
+        assertThat(index.contains(4L)).isFalse();
+    }
+
+    @Test
+    void addsBeyondTheOverlayThresholdAreMergedWithoutLosingIds() {
+        CapacityIdIndex index = new CapacityIdIndex();
+        index.beginReload();
+        index.completeReload(new long[]{0L});
+
+        int added = CapacityIdIndex.OVERLAY_MERGE_THRESHOLD * 3;
+        for (long id = added; id > 0; id--) {
+            index.add(id);
+        }
+        index.add(1L);
+
+        assertThat(index.size()).isEqualTo(added + 1);
+        for (long id = 0; id <= added; id++) {
+            assertThat(index.contains(id)).isTrue();
+        }
+        assertThat(index.contains(added + 1L)).isFalse();
+    }
+
+    @Test
+    void reloadReplacesTheIdsWithTheTableSnapshot() {
+        CapacityIdIndex index = new CapacityIdIndex();
+        index.addAll(new long[]{1L, 2L, 3L});
+
+        index.beginReload();
+        index.completeReload(new long[]{3L, 4L, 4L});
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.contains(1L)).isFalse();
+        assertThat(index.contains(3L)).isTrue();
+        assertThat(index.contains(4L)).isTrue();
+    }
+
+    @Test
+    void idsAddedDuringAReloadSurviveTheSnapshot() {
+        CapacityIdIndex index = new CapacityIdIndex();
+        index.beginReload();
+        // Guardadas después de que la consulta de recarga leyó la tabla
+        index.add(10L);
+        index.addAll(new long[]{12L, 11L});
+        index.completeReload(new long[]{1L, 2L});
+
+        assertThat(index.size()).isEqualTo(5);
+        assertThat(index.contains(10L)).isTrue();
+        assertThat(index.contains(11L)).isTrue();
+        assertThat(index.contains(12L)).isTrue();
+    }
+
+    @Test
+    void abortedReloadKeepsTheCurrentIds() {
+        CapacityIdIndex index = new CapacityIdIndex();
+        index.beginReload();
+        index.completeReload(new long[]{1L, 2L});
+
+        index.beginReload();
+        index.add(3L);
+        index.abortReload();
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.contains(3L)).isTrue();
+
+        // Lo agregado durante la recarga abortada no se arrastra a la siguiente
+        index.beginReload();
+        index.completeReload(new long[]{1L});
+        assertThat(index.contains(3L)).isFalse();
+    }
+}
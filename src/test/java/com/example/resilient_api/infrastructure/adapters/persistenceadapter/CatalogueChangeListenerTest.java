@@ -0,0 +1,90 @@
+package com.example.resilient_api.infrastructure.adapters.persistenceadapter;
+
+import com.example.resilient_api.infrastructure.cache.CatalogueChange;
+import com.example.resilient_api.infrastructure.cache.CatalogueInvalidationBus;
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import io.r2dbc.postgresql.api.PostgresqlStatement;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogueChangeListenerTest {
+
+    private static final Duration RECONNECT_DELAY = Duration.ofSeconds(1);
+    private static final Duration QUIET_SESSION = Duration.ofSeconds(1);
+    private static final int REFUSED_CONNECTIONS = 4;
+
+    private final List<Long> connectedAt = new CopyOnWriteArrayList<>();
+    private final List<CatalogueChange> published = new CopyOnWriteArrayList<>();
+    private VirtualTimeScheduler scheduler;
+    private CatalogueChangeListener listener;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = VirtualTimeScheduler.getOrSet();
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        // Como el publisher del driver: cada suscripción abre una conexión nueva
+        when(connectionFactory.create()).thenAnswer(invocation -> Mono.fromCallable(() -> {
+            connectedAt.add(scheduler.now(TimeUnit.MILLISECONDS));
+            if (connectedAt.size() <= REFUSED_CONNECTIONS) {
+                throw new IllegalStateException("connection refused");
+            }
+            return quietConnectionThatDrops();
+        }));
+        CatalogueInvalidationBus bus = new CatalogueInvalidationBus();
+        bus.subscribe(published::add);
+        listener = new CatalogueChangeListener(connectionFactory, "catalogue_changes", bus, RECONNECT_DELAY);
+    }
+
+    @AfterEach
+    void tearDown() {
+        listener.stop();
+        VirtualTimeScheduler.reset();
+    }
+
+    @Test
+    void aQuietFirstSessionThatDropsResetsTheBackoffOfEarlierFailures() {
+        listener.start();
+
+        scheduler.advanceTimeBy(Duration.ofSeconds(60));
+
+        // Tras la sesión sin notificaciones la espera vuelve a la inicial (1s con jitter de ±50%),
+        // no a la del quinto fallo seguido (16s con jitter)
+        long firstSession = connectedAt.get(REFUSED_CONNECTIONS);
+        long nextSession = connectedAt.get(REFUSED_CONNECTIONS + 1);
+        assertThat(nextSession - firstSession - QUIET_SESSION.toMillis()).isLessThanOrEqualTo(1500);
+        // La primera sesión no publica nada; cada reconexión, una invalidación completa
+        assertThat(published).hasSize(connectedAt.size() - REFUSED_CONNECTIONS - 1)
+                .allMatch(CatalogueChange::invalidateAll);
+    }
+
+    private PostgresqlConnection quietConnectionThatDrops() {
+        PostgresqlResult result = mock(PostgresqlResult.class);
+        when(result.getRowsUpdated()).thenReturn(Mono.just(0L));
+        PostgresqlStatement statement = mock(PostgresqlStatement.class);
+        when(statement.execute()).thenReturn(Flux.just(result));
+        PostgresqlConnection connection = mock(PostgresqlConnection.class);
+        when(connection.createStatement("LISTEN catalogue_changes")).thenReturn(statement);
+        // Ninguna notificación y luego la conexión se cae
+        when(connection.getNotifications()).thenReturn(Mono.delay(QUIET_SESSION)
+                .then(Mono.<Notification>error(new IllegalStateException("connection lost")))
+                .flux());
+        when(connection.close()).thenReturn(Mono.empty());
+        return connection;
+    }
+}
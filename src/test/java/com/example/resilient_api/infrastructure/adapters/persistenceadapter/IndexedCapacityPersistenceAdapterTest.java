@@ -0,0 +1,131 @@
+package com.example.resilient_api.infrastructure.adapters.persistenceadapter;
+
+import com.example.resilient_api.domain.spi.CapacityPersistencePort;
+import com.example.resilient_api.infrastructure.cache.CatalogueChange;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class IndexedCapacityPersistenceAdapterTest {
+
+    private static final Duration RECONCILE_INTERVAL = Duration.ofHours(1);
+
+    private CapacityPersistencePort delegate;
+    private DatabaseClient databaseClient;
+    private SimpleMeterRegistry meterRegistry;
+    private IndexedCapacityPersistenceAdapter adapter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        delegate = mock(CapacityPersistencePort.class);
+        databaseClient = mock(DatabaseClient.class);
+        DatabaseClient.GenericExecuteSpec spec = mock(DatabaseClient.GenericExecuteSpec.class);
+        RowsFetchSpec<Long> rows = mock(RowsFetchSpec.class);
+        when(databaseClient.sql(anyString())).thenReturn(spec);
+        when(spec.map(any(BiFunction.class))).thenReturn(rows);
+        // Contenido de la tabla capacity al reconciliar
+        when(rows.all()).thenReturn(Flux.just(1L, 2L));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (adapter != null) {
+            adapter.stop();
+        }
+    }
+
+    @Test
+    void goesToTheDatabaseUntilTheIndexIsLoaded() {
+        adapter = new IndexedCapacityPersistenceAdapter(delegate, databaseClient,
+                IndexedCapacityPersistenceAdapter.Mode.AUTHORITATIVE, RECONCILE_INTERVAL, meterRegistry);
+        when(delegate.findExistingIdsByIds(List.of(1L, 3L))).thenReturn(Flux.just(1L));
+
+        StepVerifier.create(adapter.findExistingIdsByIds(List.of(1L, 3L)))
+                .expectNext(1L)
+                .verifyComplete();
+
+        verify(delegate).findExistingIdsByIds(List.of(1L, 3L));
+    }
+
+    @Test
+    void authoritativeModeAnswersFromTheIndexOnly() {
+        adapter = startedAdapter(IndexedCapacityPersistenceAdapter.Mode.AUTHORITATIVE);
+
+        StepVerifier.create(adapter.findExistingIdsByIds(List.of(1L, 3L, 2L)))
+                .expectNext(1L, 2L)
+                .verifyComplete();
+
+        verify(delegate, never()).findExistingIdsByIds(anyList());
+    }
+
+    @Test
+    void dbVerifiedModeConfirmsMissingIdsAndIndexesThem() {
+        adapter = startedAdapter(IndexedCapacityPersistenceAdapter.Mode.DB_VERIFIED);
+        // 3 y 4 se crearon en otra instancia y todavía no llegaron al índice; 5 no existe
+        when(delegate.findExistingIdsByIds(List.of(3L, 4L, 5L))).thenReturn(Flux.just(3L, 4L));
+
+        StepVerifier.create(adapter.findExistingIdsByIds(List.of(1L, 3L, 4L, 5L)))
+                .expectNext(1L, 3L, 4L)
+                .verifyComplete();
+        verify(delegate).findExistingIdsByIds(List.of(3L, 4L, 5L));
+
+        // Los confirmados quedaron en el índice: ya no se consultan
+        StepVerifier.create(adapter.findExistingIdsByIds(List.of(3L, 4L)))
+                .expectNext(3L, 4L)
+                .verifyComplete();
+        verifyNoMoreInteractions(delegate);
+        assertThat(meterRegistry.get("capacity.id.index.size").gauge().value()).isEqualTo(4.0);
+    }
+
+    @Test
+    void catalogueChangesAddTheNotifiedIds() {
+        adapter = startedAdapter(IndexedCapacityPersistenceAdapter.Mode.AUTHORITATIVE);
+
+        adapter.onCatalogueChange(CatalogueChange.created(List.of(7L, 8L)));
+
+        StepVerifier.create(adapter.findExistingIdsByIds(List.of(7L, 8L, 9L)))
+                .expectNext(7L, 8L)
+                .verifyComplete();
+    }
+
+    private IndexedCapacityPersistenceAdapter startedAdapter(IndexedCapacityPersistenceAdapter.Mode mode) {
+        IndexedCapacityPersistenceAdapter started = new IndexedCapacityPersistenceAdapter(delegate, databaseClient,
+                mode, RECONCILE_INTERVAL, meterRegistry);
+        started.start();
+        awaitIndexLoaded();
+        return started;
+    }
+
+    private void awaitIndexLoaded() {
+        // La carga inicial corre en el scheduler de Flux.interval; staleness deja de ser NaN al completar
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (Double.isNaN(meterRegistry.get("capacity.id.index.staleness").gauge().value())) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Capacity id index was not loaded");
+            }
+            LockSupport.parkNanos(Duration.ofMillis(5).toNanos());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.resilient_api.infrastructure.adapters.persistenceadapter;
+
+import com.example.resilient_api.domain.model.Capacity;
+import com.example.resilient_api.domain.model.PaginationRequest;
+import com.example.resilient_api.domain.model.TotalCount;
+import com.example.resilient_api.domain.spi.CapacityPersistencePort;
+import com.example.resilient_api.infrastructure.observability.StageObservations;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ObservedCapacityPersistenceAdapterTest {
+
+    @Test
+    void everyQueryIsTaggedWithTheSameKeys() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+
+        CapacityPersistencePort delegate = mock(CapacityPersistencePort.class);
+        when(delegate.save(any())).thenReturn(Mono.just(new Capacity(1L, "Backend", "APIs", List.of())));
+        when(delegate.findAllPaginated(any())).thenReturn(Flux.empty());
+        when(delegate.count(any())).thenReturn(Mono.just(TotalCount.exact(0)));
+        ObservedCapacityPersistenceAdapter adapter =
+                new ObservedCapacityPersistenceAdapter(delegate, new StageObservations(observationRegistry));
+
+        adapter.save(new Capacity(null, "Backend", "APIs", List.of())).block();
+        adapter.findAllPaginated(new PaginationRequest(0, 10, PaginationRequest.SortField.NAME,
+                PaginationRequest.SortDirection.ASC)).blockLast();
+        adapter.count(PaginationRequest.CountMode.EXACT).block();
+
+        // Prometheus descarta las series de un mismo nombre que llegan con otro conjunto de tags
+        Set<Set<String>> tagKeys = meterRegistry.find("capacity.db").timers().stream()
+                .map(Meter::getId)
+                .map(id -> id.getTags().stream().map(Tag::getKey).collect(Collectors.toSet()))
+                .collect(Collectors.toSet());
+        assertThat(meterRegistry.find("capacity.db").timers()).hasSize(3);
+        assertThat(tagKeys).hasSize(1);
+        assertThat(tagKeys.iterator().next())
+                .contains("query", "sort", "page.size", "pagination", "count.mode", "outcome");
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.resilient_api.infrastructure.cache;
+
+import com.example.resilient_api.domain.model.PageCursor;
+import com.example.resilient_api.domain.model.PaginationRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CapacityPageCacheTest {
+
+    private static final CapacityPageCache.PageKey FIRST_PAGE = CapacityPageCache.PageKey.of(
+            new PaginationRequest(0, 10, PaginationRequest.SortField.NAME, PaginationRequest.SortDirection.ASC));
+
+    private CatalogueVersion catalogueVersion;
+    private CapacityPageCache capacityPageCache;
+
+    @BeforeEach
+    void setUp() {
+        catalogueVersion = new CatalogueVersion();
+        capacityPageCache = new CapacityPageCache(catalogueVersion, 100, Duration.ofMinutes(1),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void storesThePageWithAStrongETagOfItsBytes() {
+        CapacityPageCache.CachedPage page = capacityPageCache.put(FIRST_PAGE, body("[1]"),
+                capacityPageCache.currentVersion());
+
+        assertThat(page.eTag()).matches("\"[0-9a-f]{32}\"");
+        assertThat(capacityPageCache.get(FIRST_PAGE)).isSameAs(page);
+        assertThat(capacityPageCache.put(FIRST_PAGE, body("[1]"), page.version()).eTag()).isEqualTo(page.eTag());
+        assertThat(capacityPageCache.put(FIRST_PAGE, body("[2]"), page.version()).eTag()).isNotEqualTo(page.eTag());
+    }
+
+    @Test
+    void catalogueChangesInvalidateCachedPages() {
+        capacityPageCache.put(FIRST_PAGE, body("[1]"), capacityPageCache.currentVersion());
+
+        catalogueVersion.bump();
+
+        assertThat(capacityPageCache.get(FIRST_PAGE)).isNull();
+    }
+
+    @Test
+    void pagesBuiltBeforeACatalogueChangeAreNotStored() {
+        long version = capacityPageCache.currentVersion();
+        // Un alta llega mientras la página se arma
+        catalogueVersion.bump();
+
+        CapacityPageCache.CachedPage page = capacityPageCache.put(FIRST_PAGE, body("[1]"), version);
+
+        assertThat(page.body()).isEqualTo(body("[1]"));
+        assertThat(capacityPageCache.get(FIRST_PAGE)).isNull();
+    }
+
+    @Test
+    void keysetPagesAreNotCached() {
+        PageCursor cursor = new PageCursor(PaginationRequest.SortField.NAME, PaginationRequest.SortDirection.ASC,
+                0, 1L, "Backend");
+        PaginationRequest keyset = new PaginationRequest(0, 10, PaginationRequest.SortField.NAME,
+                PaginationRequest.SortDirection.ASC, cursor, null);
+
+        assertThat(CapacityPageCache.PageKey.of(keyset)).isNull();
+    }
+
+    private static byte[] body(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
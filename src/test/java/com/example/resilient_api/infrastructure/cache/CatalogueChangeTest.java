@@ -0,0 +1,37 @@
+package com.example.resilient_api.infrastructure.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogueChangeTest {
+
+    @Test
+    void createdIdsRoundTripThroughThePayload() {
+        CatalogueChange change = CatalogueChange.created(List.of(3L, 1L, 42L));
+
+        assertThat(change.toPayload()).isEqualTo("3,1,42");
+        assertThat(CatalogueChange.fromPayload(change.toPayload())).isEqualTo(change);
+    }
+
+    @Test
+    void everythingIsWrittenAsAsterisk() {
+        assertThat(CatalogueChange.everything().toPayload()).isEqualTo("*");
+        assertThat(CatalogueChange.fromPayload("*").invalidateAll()).isTrue();
+    }
+
+    @Test
+    void toleratesSpacesAroundIds() {
+        assertThat(CatalogueChange.fromPayload(" 7, 8 ,9").capacityIds()).containsExactly(7L, 8L, 9L);
+    }
+
+    @Test
+    void emptyOrUnreadablePayloadsInvalidateEverything() {
+        assertThat(CatalogueChange.fromPayload(null).invalidateAll()).isTrue();
+        assertThat(CatalogueChange.fromPayload(" ").invalidateAll()).isTrue();
+        assertThat(CatalogueChange.fromPayload("1,x,3").invalidateAll()).isTrue();
+        assertThat(CatalogueChange.fromPayload("1,,3").invalidateAll()).isTrue();
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.resilient_api.infrastructure.entrypoints.handler;
+
+import com.example.resilient_api.application.config.IdExistenceJsonComponent;
+import com.example.resilient_api.domain.api.CapacityServicePort;
+import com.example.resilient_api.domain.enums.TechnicalMessage;
+import com.example.resilient_api.domain.exceptions.BusinessException;
+import com.example.resilient_api.domain.model.CapacityWithTechnologies;
+import com.example.resilient_api.domain.model.IdExistence;
+import com.example.resilient_api.domain.model.Page;
+import com.example.resilient_api.domain.model.PaginationRequest;
+import com.example.resilient_api.domain.model.TechnologySummary;
+import com.example.resilient_api.infrastructure.cache.CapacityPageCache;
+import com.example.resilient_api.infrastructure.cache.CatalogueVersion;
+import com.example.resilient_api.infrastructure.entrypoints.RouterRest;
+import com.example.resilient_api.infrastructure.entrypoints.dto.CapacityIdsRequest;
+import com.example.resilient_api.infrastructure.entrypoints.mapper.CapacityMapper;
+import com.example.resilient_api.infrastructure.observability.RequestLog;
+import com.example.resilient_api.infrastructure.observability.StageObservations;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+import static com.example.resilient_api.infrastructure.entrypoints.util.Constants.X_MESSAGE_ID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CapacityHandlerImplTest {
+
+    private CapacityServicePort capacityServicePort;
+    private CatalogueVersion catalogueVersion;
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        capacityServicePort = mock(CapacityServicePort.class);
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new SimpleModule()
+                .addSerializer(IdExistence.class, new IdExistenceJsonComponent.Serializer()));
+        catalogueVersion = new CatalogueVersion();
+        CapacityPageCache capacityPageCache = new CapacityPageCache(catalogueVersion, 100,
+                Duration.ofMinutes(1), new SimpleMeterRegistry());
+        CapacityHandlerImpl handler = new CapacityHandlerImpl(capacityServicePort,
+                Mappers.getMapper(CapacityMapper.class), new StageObservations(ObservationRegistry.NOOP),
+                new RequestLog(0.0), capacityPageCache, objectMapper);
+
+        webTestClient = WebTestClient.bindToRouterFunction(new RouterRest().routerFunction(handler))
+                .handlerStrategies(HandlerStrategies.builder()
+                        .codecs(codecs -> codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper)))
+                        .build())
+                .build();
+    }
+
+    @Test
+    void checkCapacitiesExistAnswersTheIdMapByDefault() {
+        givenExistence();
+
+        checking("")
+                .expectStatus().isOk()
+                .expectBody().json("{\"1\":true,\"2\":false,\"3\":true}", true);
+    }
+
+    @Test
+    void checkCapacitiesExistAnswersOnlyTheMissingIds() {
+        givenExistence();
+
+        checking("?view=missing")
+                .expectStatus().isOk()
+                .expectBody().json("[2]", true);
+    }
+
+    @Test
+    void checkCapacitiesExistAnswersThePresenceBitmap() {
+        givenExistence();
+
+        // Bits 0 y 2 encendidos (ids 1 y 3) = 0b101
+        checking("?view=bitmap")
+                .expectStatus().isOk()
+                .expectBody().json("{\"size\":3,\"present\":2,\"bitmap\":\"BQ==\"}", true);
+    }
+
+    @Test
+    void checkCapacitiesExistRejectsUnknownViews() {
+        checking("?view=list")
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void checkCapacitiesExistMapsBusinessErrorsToBadRequest() {
+        when(capacityServicePort.checkCapacitiesExist(anyList(), anyString()))
+                .thenReturn(Mono.error(new BusinessException(TechnicalMessage.INVALID_PARAMETERS)));
+
+        checking("")
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void listCapacitiesAnswersNotModifiedForTheCurrentETag() {
+        givenPage(false);
+
+        String eTag = webTestClient.get().uri("/capacity?page=0&size=10")
+                .header(X_MESSAGE_ID, "test-message")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().cacheControl(CacheControl.noCache())
+                .expectBody().jsonPath("$.content[0].name").isEqualTo("Backend")
+                .returnResult()
+                .getResponseHeaders()
+                .getETag();
+        assertThat(eTag).isNotBlank();
+
+        webTestClient.get().uri("/capacity?page=0&size=10")
+                .header(X_MESSAGE_ID, "test-message")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+
+        // La segunda respuesta salió del caché de páginas
+        verify(capacityServicePort, times(1)).listCapacities(any(PaginationRequest.class), anyString());
+    }
+
+    @Test
+    void listCapacitiesRebuildsThePageAfterACatalogueChange() {
+        givenPage(false);
+        String eTag = listFirstPage().getResponseHeaders().getETag();
+
+        catalogueVersion.bump();
+
+        webTestClient.get().uri("/capacity?page=0&size=10")
+                .header(X_MESSAGE_ID, "test-message")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                // Mismo contenido, mismo ETag: la página se vuelve a armar pero el cliente conserva su copia
+                .expectStatus().isNotModified();
+        verify(capacityServicePort, times(2)).listCapacities(any(PaginationRequest.class), anyString());
+    }
+
+    @Test
+    void listCapacitiesDoesNotCachePartialPages() {
+        givenPage(true);
+
+        assertThat(listFirstPage().getResponseHeaders().getETag()).isNull();
+        listFirstPage();
+
+        verify(capacityServicePort, times(2)).listCapacities(any(PaginationRequest.class), anyString());
+    }
+
+    private EntityExchangeResult<byte[]> listFirstPage() {
+        return webTestClient.get().uri("/capacity?page=0&size=10")
+                .header(X_MESSAGE_ID, "test-message")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .returnResult();
+    }
+
+    private void givenPage(boolean partial) {
+        CapacityWithTechnologies capacity = new CapacityWithTechnologies(1L, "Backend", "APIs",
+                List.of(new TechnologySummary(10L, "Java")), partial);
+        when(capacityServicePort.listCapacities(any(PaginationRequest.class), anyString()))
+                .thenReturn(Mono.just(Page.of(List.of(capacity), 0, 10, 1)));
+    }
+
+    private void givenExistence() {
+        when(capacityServicePort.checkCapacitiesExist(anyList(), anyString()))
+                .thenReturn(Mono.just(IdExistence.requested(List.of(3L, 1L, 2L))
+                        .markPresent(1L)
+                        .markPresent(3L)
+                        .build()));
+    }
+
+    private WebTestClient.ResponseSpec checking(String query) {
+        return webTestClient.post()
+                .uri("/capacity/checking" + query)
+                .header(X_MESSAGE_ID, "test-message")
+                .bodyValue(new CapacityIdsRequest(List.of(3L, 1L, 2L)))
+                .exchange();
+    }
+}